@@ -50,6 +50,7 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                 // Extract user info and add to headers
                 String username = jwtService.extractUsername(token);
                 String role = jwtService.extractRole(token);
+                String email = jwtService.extractEmail(token);
 
                 log.debug("Authenticated request for user: {} with role: {}", username, role);
 
@@ -57,6 +58,13 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                 ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
                         .header("X-User-Id", username)
                         .header("X-User-Role", role)
+                        // Only ever the token's email, never one sent by the client
+                        .headers(headers -> {
+                            headers.remove("X-User-Email");
+                            if (email != null) {
+                                headers.set("X-User-Email", email);
+                            }
+                        })
                         .build();
 
                 return chain.filter(exchange.mutate().request(modifiedRequest).build());
@@ -33,6 +33,14 @@ public class JwtService {
         return claims.get("role", String.class);
     }
 
+    /**
+     * @return the user's email, or null for tokens issued without one
+     */
+    public String extractEmail(String token) {
+        Claims claims = extractAllClaims(token);
+        return claims.get("email", String.class);
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "4.0.0"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "io.github.bardiakz"
@@ -27,6 +28,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
 
     // PostgreSQL
     runtimeOnly("org.postgresql:postgresql")
@@ -36,6 +38,7 @@ dependencies {
 
     // Redis for caching
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
+    implementation("com.github.ben-manes.caffeine:caffeine")
 
     // JSON processing
     implementation("com.fasterxml.jackson.core:jackson-databind")
@@ -51,3 +54,22 @@ dependencies {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// Microbenchmarks: ./gradlew jmh (results in build/results/jmh/results.json)
+jmh {
+	warmupIterations = 2
+	iterations = 5
+	fork = 1
+	jvmArgs = listOf("-Xmx2g")
+	resultFormat = "JSON"
+}
+
+// Records the current results as the baseline to compare future runs against.
+// Record it on the reference machine through this task, so it runs on the build toolchain
+// (Java 25), not on whatever JDK happens to be installed
+tasks.register<Copy>("jmhBaseline") {
+	dependsOn("jmh")
+	from(layout.buildDirectory.file("results/jmh/results.json"))
+	into("src/jmh")
+	rename { "baseline.json" }
+}
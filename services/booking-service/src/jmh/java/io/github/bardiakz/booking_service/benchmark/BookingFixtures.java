@@ -0,0 +1,34 @@
+package io.github.bardiakz.booking_service.benchmark;
+
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic booking data: every resource gets back-to-back one-hour slots
+ */
+final class BookingFixtures {
+
+    static final LocalDateTime ORIGIN = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private BookingFixtures() {}
+
+    static List<Booking> generate(int resources, int bookingsPerResource) {
+        List<Booking> bookings = new ArrayList<>(resources * bookingsPerResource);
+        long id = 1;
+        for (long resourceId = 1; resourceId <= resources; resourceId++) {
+            for (int slot = 0; slot < bookingsPerResource; slot++) {
+                LocalDateTime start = ORIGIN.plusHours(slot * 2L);
+                Booking booking = new Booking(resourceId, "user-" + (id % 5000), "STUDENT",
+                        start, start.plusHours(1), "Benchmark");
+                booking.setId(id++);
+                booking.setStatus(BookingStatus.CONFIRMED);
+                bookings.add(booking);
+            }
+        }
+        return bookings;
+    }
+}
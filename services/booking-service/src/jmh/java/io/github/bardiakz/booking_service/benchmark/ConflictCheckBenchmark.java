@@ -0,0 +1,66 @@
+package io.github.bardiakz.booking_service.benchmark;
+
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.service.BookingSlotIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Overlap check at 10k resources x 100 bookings (1M bookings): the in-memory slot
+ * index against a linear scan of the resource's bookings, which is what the
+ * findOverlappingBookings filter does per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConflictCheckBenchmark {
+
+    @Param({"10000"})
+    int resources;
+
+    @Param({"100"})
+    int bookingsPerResource;
+
+    private BookingSlotIndex index;
+    private Map<Long, List<Booking>> byResource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Booking> bookings = BookingFixtures.generate(resources, bookingsPerResource);
+        index = new BookingSlotIndex(null);
+        bookings.forEach(index::add);
+        byResource = bookings.stream().collect(Collectors.groupingBy(Booking::getResourceId));
+    }
+
+    @Benchmark
+    public boolean slotIndex() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long resourceId = 1 + random.nextInt(resources);
+        LocalDateTime start = requestedStart(random);
+        return index.hasConflict(resourceId, start, start.plusMinutes(45));
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long resourceId = 1 + random.nextInt(resources);
+        LocalDateTime start = requestedStart(random);
+        LocalDateTime end = start.plusMinutes(45);
+        for (Booking booking : byResource.get(resourceId)) {
+            if (booking.getStartTime().isBefore(end) && booking.getEndTime().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LocalDateTime requestedStart(ThreadLocalRandom random) {
+        return BookingFixtures.ORIGIN.plusMinutes(random.nextInt(bookingsPerResource * 120));
+    }
+}
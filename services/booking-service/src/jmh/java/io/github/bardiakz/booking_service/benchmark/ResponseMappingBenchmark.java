@@ -0,0 +1,64 @@
+package io.github.bardiakz.booking_service.benchmark;
+
+import io.github.bardiakz.booking_service.dto.BookingResponse;
+import io.github.bardiakz.booking_service.event.BookingEventPublisher;
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.model.OutboxEvent;
+import io.github.bardiakz.booking_service.repository.OutboxEventRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-booking costs on the request path: BookingResponse.from and building the
+ * event map plus its JSON payload for the outbox (the repository is a no-op stub).
+ * Logging below WARN is off for benchmarks (src/jmh/resources/logback.xml).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseMappingBenchmark {
+
+    private List<Booking> bookings;
+    private BookingEventPublisher publisher;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bookings = BookingFixtures.generate(1024, 1);
+        publisher = new BookingEventPublisher(noOpOutbox(), JsonMapper.builder().build());
+    }
+
+    @Benchmark
+    public BookingResponse responseMapping() {
+        return BookingResponse.from(next());
+    }
+
+    @Benchmark
+    public void confirmedEvent(Blackhole blackhole) {
+        Booking booking = next();
+        publisher.publishBookingConfirmed(booking);
+        blackhole.consume(booking);
+    }
+
+    private Booking next() {
+        cursor = (cursor + 1) & 1023;
+        return bookings.get(cursor);
+    }
+
+    private static OutboxEventRepository noOpOutbox() {
+        return (OutboxEventRepository) Proxy.newProxyInstance(
+                OutboxEventRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxEventRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save") && args != null && args[0] instanceof OutboxEvent event) {
+                        return event;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.bardiakz.booking_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Installs a Postgres exclusion constraint on the bookings table so that two
+ * active bookings can never overlap, even across several booking-service instances.
+ * On by default (needs the btree_gist extension); BookingSlotIndex is per instance, so
+ * turning it off with booking.exclusion-constraint.enabled=false is only safe for a
+ * single instance.
+ */
+@Component
+public class BookingConstraintInstaller {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingConstraintInstaller.class);
+
+    public static final String CONSTRAINT_NAME = "bookings_no_overlap";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public BookingConstraintInstaller(JdbcTemplate jdbcTemplate,
+                                      @Value("${booking.exclusion-constraint.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void install() {
+        if (!enabled) {
+            log.warn("Booking exclusion constraint disabled: overlapping bookings are only prevented " +
+                    "within this instance, run a single booking-service instance");
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT_NAME);
+            if (existing != null && existing > 0) {
+                log.info("Booking exclusion constraint already present");
+                return;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE bookings ADD CONSTRAINT " + CONSTRAINT_NAME + " " +
+                    "EXCLUDE USING gist (resource_id WITH =, tsrange(start_time, end_time) WITH &&) " +
+                    "WHERE (status IN ('PENDING', 'CONFIRMED'))");
+            log.info("Installed booking exclusion constraint {}", CONSTRAINT_NAME);
+        } catch (Exception e) {
+            // Most likely overlapping active bookings already exist; they must be resolved by hand
+            log.error("Failed to install booking exclusion constraint, double bookings across instances are possible", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.bardiakz.booking_service.config;
+
+import io.github.bardiakz.booking_service.service.BookingCache;
+import io.github.bardiakz.booking_service.service.SlotIndexBroadcaster;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes the booking cache and the slot index to changes broadcast by other instances
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer bookingCacheListenerContainer(
+            RedisConnectionFactory connectionFactory, BookingCache bookingCache,
+            SlotIndexBroadcaster slotIndexBroadcaster) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(bookingCache, new ChannelTopic(BookingCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(slotIndexBroadcaster, new ChannelTopic(SlotIndexBroadcaster.CHANNEL));
+        return container;
+    }
+}
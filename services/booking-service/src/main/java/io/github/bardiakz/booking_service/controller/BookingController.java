@@ -1,15 +1,22 @@
 package io.github.bardiakz.booking_service.controller;
 
+import io.github.bardiakz.booking_service.dto.BookingPage;
+import io.github.bardiakz.booking_service.dto.CreateBatchBookingRequest;
 import io.github.bardiakz.booking_service.dto.CreateBookingRequest;
+import io.github.bardiakz.booking_service.dto.CreateRecurringBookingRequest;
+import io.github.bardiakz.booking_service.dto.ResourceAvailability;
 import io.github.bardiakz.booking_service.dto.BookingResponse;
+import io.github.bardiakz.booking_service.model.BookingStatus;
 import io.github.bardiakz.booking_service.service.BookingService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +25,8 @@ import java.util.Map;
 public class BookingController {
 
     private static final Logger log = LoggerFactory.getLogger(BookingController.class);
+    private static final int MAX_AVAILABILITY_RESOURCES = 500;
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final BookingService bookingService;
 
@@ -51,6 +60,64 @@ public class BookingController {
         }
     }
 
+    /**
+     * Create several bookings on one resource in a single request
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatchBooking(
+            @Valid @RequestBody CreateBatchBookingRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @RequestHeader(value = "X-User-Email", required = false) String userEmail) {
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "User authentication required"));
+        }
+
+        log.info("Create batch booking request ({} slots) from user: {}", request.slots().size(), userId);
+
+        try {
+            List<BookingResponse> response = bookingService.createBookings(
+                    request.resourceId(), request.slots(), request.purpose(),
+                    userId, userRole != null ? userRole : "STUDENT", userEmail);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            log.error("Error creating batch booking", e);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Create a recurring booking (same slot every N weeks)
+     */
+    @PostMapping("/recurring")
+    public ResponseEntity<?> createRecurringBooking(
+            @Valid @RequestBody CreateRecurringBookingRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @RequestHeader(value = "X-User-Email", required = false) String userEmail) {
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "User authentication required"));
+        }
+
+        log.info("Create recurring booking request ({} occurrences) from user: {}", request.occurrences(), userId);
+
+        try {
+            List<BookingResponse> response = bookingService.createBookings(
+                    request.resourceId(), request.toSlots(), request.purpose(),
+                    userId, userRole != null ? userRole : "STUDENT", userEmail);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            log.error("Error creating recurring booking", e);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get my bookings
      */
@@ -67,6 +134,27 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Get my bookings one keyset page at a time (ordered by start time)
+     */
+    @GetMapping("/my-bookings/page")
+    public ResponseEntity<?> getMyBookingsPage(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            BookingPage page = bookingService.getMyBookingsPage(userId, cursor, clampLimit(limit));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get upcoming bookings
      */
@@ -83,6 +171,30 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Check which of the given resources are free between startTime and endTime
+     * (callers pass the candidate resource IDs, e.g. all resources of one type)
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(
+            @RequestParam List<Long> resourceIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+
+        if (!endTime.isAfter(startTime)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "End time must be after start time"));
+        }
+        if (resourceIds.size() > MAX_AVAILABILITY_RESOURCES) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Cannot check more than " + MAX_AVAILABILITY_RESOURCES + " resources at once"));
+        }
+
+        log.debug("Availability request for {} resources", resourceIds.size());
+        List<ResourceAvailability> availability = bookingService.getAvailability(resourceIds, startTime, endTime);
+        return ResponseEntity.ok(availability);
+    }
+
     /**
      * Get booking by ID
      */
@@ -116,6 +228,47 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Get bookings for a resource one keyset page at a time
+     */
+    @GetMapping("/resource/{resourceId}/page")
+    public ResponseEntity<?> getBookingsByResourcePage(
+            @PathVariable Long resourceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        log.debug("Get bookings page for resource: {}", resourceId);
+        try {
+            BookingPage page = bookingService.getBookingsByResourcePage(resourceId, cursor, clampLimit(limit));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get bookings by status one keyset page at a time (FACULTY only)
+     */
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<?> getBookingsByStatusPage(
+            @PathVariable BookingStatus status,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        if (!"FACULTY".equals(userRole)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only FACULTY members can list bookings by status"));
+        }
+
+        try {
+            BookingPage page = bookingService.getBookingsByStatusPage(status, cursor, clampLimit(limit));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Cancel a booking
      */
@@ -140,4 +293,8 @@ public class BookingController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.bardiakz.booking_service.dto;
+
+import java.util.List;
+
+public record BookingPage(
+        List<BookingResponse> items,
+        String nextCursor
+) {}
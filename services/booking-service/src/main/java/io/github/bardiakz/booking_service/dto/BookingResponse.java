@@ -2,6 +2,7 @@ package io.github.bardiakz.booking_service.dto;
 
 import io.github.bardiakz.booking_service.model.Booking;
 import io.github.bardiakz.booking_service.model.BookingStatus;
+import io.github.bardiakz.booking_service.repository.BookingView;
 import java.time.LocalDateTime;
 
 public record BookingResponse(
@@ -56,4 +57,32 @@ public record BookingResponse(
 
     }
 
+    public static BookingResponse from(BookingView view) {
+
+        return new BookingResponse(
+
+                view.getId(),
+
+                view.getResourceId(),
+
+                view.getUserId(),
+
+                view.getUserRole(),
+
+                view.getStartTime(),
+
+                view.getEndTime(),
+
+                view.getStatus(),
+
+                view.getPurpose(),
+
+                view.getCreatedAt(),
+
+                view.getUpdatedAt()
+
+        );
+
+    }
+
 }
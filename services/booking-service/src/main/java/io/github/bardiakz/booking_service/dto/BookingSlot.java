@@ -0,0 +1,21 @@
+package io.github.bardiakz.booking_service.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public record BookingSlot(
+        @NotNull(message = "Start time is required")
+        @Future(message = "Start time must be in the future")
+        LocalDateTime startTime,
+
+        @NotNull(message = "End time is required")
+        LocalDateTime endTime
+) {
+    public BookingSlot {
+        // Validation: end time must be after start time
+        if (startTime != null && endTime != null && !endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+    }
+}
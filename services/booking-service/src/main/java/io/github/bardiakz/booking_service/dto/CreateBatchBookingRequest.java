@@ -0,0 +1,17 @@
+package io.github.bardiakz.booking_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public record CreateBatchBookingRequest(
+        @NotNull(message = "Resource ID is required")
+        Long resourceId,
+
+        @NotEmpty(message = "At least one slot is required")
+        @Size(max = 100, message = "Cannot book more than 100 slots at once")
+        List<@Valid @NotNull BookingSlot> slots,
+
+        @Size(max = 500, message = "Purpose cannot exceed 500 characters")
+        String purpose
+) {}
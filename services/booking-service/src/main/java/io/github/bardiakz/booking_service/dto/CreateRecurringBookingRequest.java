@@ -0,0 +1,50 @@
+package io.github.bardiakz.booking_service.dto;
+
+import jakarta.validation.constraints.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record CreateRecurringBookingRequest(
+        @NotNull(message = "Resource ID is required")
+        Long resourceId,
+
+        @NotNull(message = "Start time is required")
+        @Future(message = "Start time must be in the future")
+        LocalDateTime startTime,
+
+        @NotNull(message = "End time is required")
+        LocalDateTime endTime,
+
+        @NotNull(message = "Occurrences is required")
+        @Min(value = 1, message = "Occurrences must be at least 1")
+        @Max(value = 100, message = "Occurrences cannot exceed 100")
+        Integer occurrences,
+
+        @Min(value = 1, message = "Interval must be at least 1 week")
+        Integer intervalWeeks,
+
+        @Size(max = 500, message = "Purpose cannot exceed 500 characters")
+        String purpose
+) {
+    public CreateRecurringBookingRequest {
+        // Validation: end time must be after start time
+        if (startTime != null && endTime != null && !endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+    }
+
+    /**
+     * Expand the recurrence into one slot per occurrence (weekly by default)
+     */
+    public List<BookingSlot> toSlots() {
+        int weeks = intervalWeeks != null ? intervalWeeks : 1;
+        List<BookingSlot> slots = new ArrayList<>(occurrences);
+        for (int i = 0; i < occurrences; i++) {
+            slots.add(new BookingSlot(
+                    startTime.plusWeeks((long) i * weeks),
+                    endTime.plusWeeks((long) i * weeks)));
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,9 @@
+package io.github.bardiakz.booking_service.dto;
+
+import java.util.List;
+
+public record ResourceAvailability(
+        Long resourceId,
+        boolean available,
+        List<BookingSlot> freeSlots
+) {}
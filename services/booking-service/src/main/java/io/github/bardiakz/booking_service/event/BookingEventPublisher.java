@@ -1,26 +1,39 @@
 package io.github.bardiakz.booking_service.event;
 
 import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.model.OutboxEvent;
+import io.github.bardiakz.booking_service.repository.OutboxEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Records booking events in the outbox table as part of the caller's transaction.
+ * OutboxRelay delivers them to RabbitMQ after commit.
+ */
 @Component
 public class BookingEventPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(BookingEventPublisher.class);
     private static final String EXCHANGE_NAME = "booking.events";
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
-    public BookingEventPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public BookingEventPublisher(OutboxEventRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishBookingConfirmed(Booking booking) {
         Map<String, Object> event = new HashMap<>();
         event.put("eventType", "BookingConfirmed");
@@ -31,27 +44,69 @@ public class BookingEventPublisher {
         event.put("endTime", booking.getEndTime().toString());
         event.put("timestamp", System.currentTimeMillis());
 
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, "booking.confirmed", event);
-            log.info("Published BookingConfirmed event for booking ID: {}", booking.getId());
-        } catch (Exception e) {
-            log.error("Failed to publish BookingConfirmed event", e);
-        }
+        outboxRepository.save(toOutbox("booking.confirmed", event));
+        log.info("Queued BookingConfirmed event for booking ID: {}", booking.getId());
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishBookingCancelled(Booking booking) {
+        outboxRepository.save(toOutbox("booking.cancelled", cancelledEvent(booking)));
+        log.info("Queued BookingCancelled event for booking ID: {}", booking.getId());
+    }
+
+    /**
+     * Publish one aggregated BookingsConfirmed event for a batch or recurring booking
+     * (booking.batch.confirmed, consumed by notification-service as BookingsConfirmedEvent)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishBookingsConfirmed(List<Booking> bookings, String userEmail) {
+        Booking first = bookings.get(0);
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", "BookingsConfirmed");
+        event.put("resourceId", first.getResourceId());
+        event.put("userId", first.getUserId());
+        event.put("userEmail", userEmail);
+        event.put("bookings", bookings.stream().map(booking -> {
+            Map<String, Object> slot = new HashMap<>();
+            slot.put("bookingId", booking.getId());
+            slot.put("startTime", booking.getStartTime().toString());
+            slot.put("endTime", booking.getEndTime().toString());
+            return slot;
+        }).toList());
+        event.put("timestamp", LocalDateTime.now().toString());
+
+        outboxRepository.save(toOutbox("booking.batch.confirmed", event));
+        log.info("Queued BookingsConfirmed event for {} bookings on resource {}",
+                bookings.size(), first.getResourceId());
+    }
+
+    /**
+     * Queue BookingCancelled events for many bookings with one batched insert
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishBookingsCancelled(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        outboxRepository.saveAll(bookings.stream()
+                .map(booking -> toOutbox("booking.cancelled", cancelledEvent(booking)))
+                .toList());
+        log.info("Queued {} BookingCancelled events", bookings.size());
+    }
+
+    private Map<String, Object> cancelledEvent(Booking booking) {
         Map<String, Object> event = new HashMap<>();
         event.put("eventType", "BookingCancelled");
         event.put("bookingId", booking.getId());
         event.put("resourceId", booking.getResourceId());
         event.put("userId", booking.getUserId());
         event.put("timestamp", System.currentTimeMillis());
+        return event;
+    }
 
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, "booking.cancelled", event);
-            log.info("Published BookingCancelled event for booking ID: {}", booking.getId());
-        } catch (Exception e) {
-            log.error("Failed to publish BookingCancelled event", e);
-        }
+    private OutboxEvent toOutbox(String routingKey, Map<String, Object> event) {
+        return new OutboxEvent(EXCHANGE_NAME, routingKey, objectMapper.writeValueAsString(event));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package io.github.bardiakz.booking_service.event;
+
+import io.github.bardiakz.booking_service.model.OutboxEvent;
+import io.github.bardiakz.booking_service.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the booking outbox to RabbitMQ in batches. A batch is sent on one channel,
+ * confirmed by the broker as a whole and only then deleted, so events are delivered
+ * at least once and broker latency never sits inside a booking transaction.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final TypeReference<Map<String, Object>> EVENT_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       RabbitTemplate rabbitTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            int sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch());
+            } while (sent == batchSize);
+        } catch (Exception e) {
+            // Rows stay in the outbox and are retried on the next run
+            log.error("Failed to relay booking outbox batch", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                Map<String, Object> payload = objectMapper.readValue(event.getPayload(), EVENT_TYPE);
+                operations.convertAndSend(event.getExchange(), event.getRoutingKey(), payload);
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+
+        outboxRepository.deleteByIds(batch.stream().map(OutboxEvent::getId).toList());
+        log.debug("Relayed {} booking events", batch.size());
+        return batch.size();
+    }
+}
@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings", indexes = {
         @Index(name = "idx_resource_time", columnList = "resourceId,startTime,endTime"),
-        @Index(name = "idx_user_id", columnList = "userId")
+        @Index(name = "idx_user_id", columnList = "userId"),
+        @Index(name = "idx_user_start", columnList = "userId,startTime,id"),
+        @Index(name = "idx_status_start", columnList = "status,startTime,id"),
+        @Index(name = "idx_status_end", columnList = "status,endTime")
 })
 public class Booking {
 
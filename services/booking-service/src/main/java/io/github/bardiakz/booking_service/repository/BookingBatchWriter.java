@@ -0,0 +1,112 @@
+package io.github.bardiakz.booking_service.repository;
+
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.model.BookingStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based booking writes that bypass the entity manager: batched inserts
+ * (Hibernate cannot batch IDENTITY inserts) and bulk status updates.
+ */
+@Repository
+public class BookingBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bookings (resource_id, user_id, user_role, start_time, end_time, " +
+                    "status, purpose, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String REJECT_ACTIVE_SQL =
+            "UPDATE bookings SET status = 'REJECTED', updated_at = ?, version = version + 1 " +
+                    "WHERE resource_id = ? AND status IN ('PENDING', 'CONFIRMED') AND end_time > ? " +
+                    "RETURNING id, resource_id, user_id, user_role, start_time, end_time";
+
+    private static final String TRANSITION_ENDED_SQL =
+            "UPDATE bookings SET status = ?, updated_at = ?, version = version + 1 " +
+                    "WHERE id IN (SELECT id FROM bookings WHERE status = ? AND end_time <= ? " +
+                    "ORDER BY end_time LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert all bookings in one batch and copy the generated ids back onto them
+     */
+    public List<Booking> insertAll(List<Booking> bookings) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        ps.setLong(1, booking.getResourceId());
+                        ps.setString(2, booking.getUserId());
+                        ps.setString(3, booking.getUserRole());
+                        ps.setTimestamp(4, Timestamp.valueOf(booking.getStartTime()));
+                        ps.setTimestamp(5, Timestamp.valueOf(booking.getEndTime()));
+                        ps.setString(6, booking.getStatus().name());
+                        ps.setString(7, booking.getPurpose());
+                        ps.setTimestamp(8, Timestamp.valueOf(booking.getCreatedAt()));
+                        ps.setTimestamp(9, booking.getUpdatedAt() != null
+                                ? Timestamp.valueOf(booking.getUpdatedAt()) : null);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+            bookings.get(i).setVersion(0L);
+        }
+        return bookings;
+    }
+
+    /**
+     * Reject every active booking of a resource in one statement and return the affected rows
+     */
+    public List<Booking> rejectActiveBookings(Long resourceId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.query(REJECT_ACTIVE_SQL, (rs, rowNum) -> {
+            Booking booking = new Booking(
+                    rs.getLong("resource_id"),
+                    rs.getString("user_id"),
+                    rs.getString("user_role"),
+                    rs.getTimestamp("start_time").toLocalDateTime(),
+                    rs.getTimestamp("end_time").toLocalDateTime(),
+                    null);
+            booking.setId(rs.getLong("id"));
+            booking.setStatus(BookingStatus.REJECTED);
+            return booking;
+        }, timestamp, resourceId, timestamp);
+    }
+
+    /**
+     * Move up to batchSize bookings whose end time has passed from one status to another
+     * @return ids of the bookings transitioned
+     */
+    public List<Long> transitionEndedBookings(BookingStatus from, BookingStatus to, LocalDateTime now, int batchSize) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.queryForList(TRANSITION_ENDED_SQL, Long.class,
+                to.name(), timestamp, from.name(), timestamp, batchSize);
+    }
+}
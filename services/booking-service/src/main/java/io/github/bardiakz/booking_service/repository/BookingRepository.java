@@ -2,12 +2,14 @@ package io.github.bardiakz.booking_service.repository;
 
 import io.github.bardiakz.booking_service.model.Booking;
 import io.github.bardiakz.booking_service.model.BookingStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,6 +34,17 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("endTime") LocalDateTime endTime
     );
 
+    // Active bookings of several resources overlapping a window (availability search)
+    @Query("SELECT b FROM Booking b WHERE b.resourceId IN :resourceIds " +
+            "AND b.status IN ('PENDING', 'CONFIRMED') " +
+            "AND b.startTime < :endTime AND b.endTime > :startTime " +
+            "ORDER BY b.startTime ASC")
+    List<Booking> findOverlappingBookingsForResources(
+            @Param("resourceIds") Collection<Long> resourceIds,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
     // Find active bookings for a resource
     @Query("SELECT b FROM Booking b WHERE b.resourceId = :resourceId " +
             "AND b.status IN ('PENDING', 'CONFIRMED') " +
@@ -41,6 +54,11 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("now") LocalDateTime now
     );
 
+    // Find all active bookings that have not ended yet (warms the in-memory slot index)
+    @Query("SELECT b FROM Booking b WHERE b.status IN ('PENDING', 'CONFIRMED') " +
+            "AND b.endTime > :now")
+    List<Booking> findAllActiveBookings(@Param("now") LocalDateTime now);
+
     // Find user's upcoming bookings
     @Query("SELECT b FROM Booking b WHERE b.userId = :userId " +
             "AND b.status IN ('PENDING', 'CONFIRMED') " +
@@ -50,4 +68,35 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("userId") String userId,
             @Param("now") LocalDateTime now
     );
-}
\ No newline at end of file
+
+    // Keyset pages over (startTime, id), selecting only the BookingView columns
+    String VIEW_COLUMNS = "SELECT b.id AS id, b.resourceId AS resourceId, b.userId AS userId, " +
+            "b.userRole AS userRole, b.startTime AS startTime, b.endTime AS endTime, b.status AS status, " +
+            "b.purpose AS purpose, b.createdAt AS createdAt, b.updatedAt AS updatedAt FROM Booking b ";
+    String AFTER_CURSOR = "AND (b.startTime > :startTime OR (b.startTime = :startTime AND b.id > :id)) " +
+            "ORDER BY b.startTime ASC, b.id ASC";
+
+    @Query(VIEW_COLUMNS + "WHERE b.userId = :userId " + AFTER_CURSOR)
+    List<BookingView> findPageByUserId(
+            @Param("userId") String userId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    @Query(VIEW_COLUMNS + "WHERE b.resourceId = :resourceId " + AFTER_CURSOR)
+    List<BookingView> findPageByResourceId(
+            @Param("resourceId") Long resourceId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    @Query(VIEW_COLUMNS + "WHERE b.status = :status " + AFTER_CURSOR)
+    List<BookingView> findPageByStatus(
+            @Param("status") BookingStatus status,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") Long id,
+            Limit limit
+    );
+}
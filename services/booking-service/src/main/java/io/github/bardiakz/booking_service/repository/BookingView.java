@@ -0,0 +1,21 @@
+package io.github.bardiakz.booking_service.repository;
+
+import io.github.bardiakz.booking_service.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the columns exposed by BookingResponse (no version, no entity state)
+ */
+public interface BookingView {
+    Long getId();
+    Long getResourceId();
+    String getUserId();
+    String getUserRole();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    BookingStatus getStatus();
+    String getPurpose();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,42 @@
+package io.github.bardiakz.booking_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking writes per resource using a fixed pool of striped locks.
+ * Requests for the same resource always map to the same stripe, so the conflict
+ * check and the insert run one at a time; other resources proceed in parallel.
+ */
+@Component
+public class BookingAdmission {
+
+    private final ReentrantLock[] stripes;
+
+    public BookingAdmission(@Value("${booking.admission.stripes:256}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("booking.admission.stripes must be positive");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    public <T> T admit(Long resourceId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(resourceId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long resourceId) {
+        return stripes[Math.floorMod(resourceId.hashCode(), stripes.length)];
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.bardiakz.booking_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bardiakz.booking_service.dto.BookingResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier read-through cache for single bookings and per-user upcoming bookings.
+ * Tier 1 is a bounded local Caffeine cache; tier 2 is Redis, shared by all instances.
+ * Evictions delete the Redis key and are broadcast on a Redis channel so that every
+ * instance drops its local copy. Redis failures degrade to a cache miss.
+ * <p>
+ * Each key has a version counter that evictions increment. A reader fills Redis only
+ * if the version it saw before loading is unchanged, so a value loaded before a
+ * concurrent write committed is never cached after that write's eviction. A value
+ * read from Redis only enters the local tier if its version is still current.
+ */
+@Component
+public class BookingCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "booking-cache-invalidation";
+    private static final String BOOKING_PREFIX = "booking:id:";
+    private static final String UPCOMING_PREFIX = "booking:upcoming:";
+    private static final TypeReference<List<BookingResponse>> LIST_TYPE = new TypeReference<>() {};
+    private static final String VERSION_SUFFIX = ":v";
+
+    // KEYS: value key, version key; ARGV: version seen before loading, value, ttl millis
+    private static final RedisScript<Long> FILL_IF_UNCHANGED = RedisScript.of("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // KEYS: value keys followed by their version keys; ARGV: version ttl millis
+    private static final RedisScript<Long> EVICT = RedisScript.of("""
+            local n = #KEYS / 2
+            for i = 1, n do
+                redis.call('DEL', KEYS[i])
+                redis.call('INCR', KEYS[n + i])
+                redis.call('PEXPIRE', KEYS[n + i], ARGV[1])
+            end
+            return n
+            """, Long.class);
+
+    private final Cache<String, Object> local;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration redisTtl;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public BookingCache(StringRedisTemplate redisTemplate,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${booking.cache.local-max-size:10000}") long localMaxSize,
+                        @Value("${booking.cache.local-ttl-seconds:60}") long localTtlSeconds,
+                        @Value("${booking.cache.redis-ttl-seconds:600}") long redisTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "booking.local");
+        this.redisHits = Counter.builder("booking.cache.redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("booking.cache.redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public BookingResponse getBooking(Long id, Supplier<BookingResponse> loader) {
+        return get(BOOKING_PREFIX + id, BookingResponse.class, null, loader);
+    }
+
+    public List<BookingResponse> getUpcoming(String userId, Supplier<List<BookingResponse>> loader) {
+        return get(UPCOMING_PREFIX + userId, null, LIST_TYPE, loader);
+    }
+
+    public void evictBookings(Collection<Long> ids) {
+        evict(ids.stream().map(id -> BOOKING_PREFIX + id).toList());
+    }
+
+    public void evictUpcoming(Collection<String> userIds) {
+        evict(userIds.stream().distinct().map(userId -> UPCOMING_PREFIX + userId).toList());
+    }
+
+    /**
+     * Invalidation broadcast from another instance (or this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        local.invalidate(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, Class<T> type, TypeReference<T> typeReference, Supplier<T> loader) {
+        Object cached = local.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        RedisEntry entry = readRedis(key);
+        if (entry.json() != null) {
+            try {
+                T value = type != null
+                        ? objectMapper.readValue(entry.json(), type)
+                        : objectMapper.readValue(entry.json(), typeReference);
+                redisHits.increment();
+                // An eviction since the read may have left the local tier already: keep the value out of it
+                if (versionUnchanged(key, entry.version())) {
+                    local.put(key, value);
+                }
+                return value;
+            } catch (Exception e) {
+                log.debug("Unreadable cache entry {}", key, e);
+            }
+        }
+        redisMisses.increment();
+
+        T value = loader.get();
+        // An eviction while loading means the value may predate a write: serve it, cache nothing
+        if (entry.version() == null || writeRedis(key, entry.version(), value)) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    // The cached value (null on a miss) and its version, in one round trip; no version if Redis failed
+    private RedisEntry readRedis(String key) {
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(key, key + VERSION_SUFFIX));
+            if (values == null) {
+                return new RedisEntry(null, null);
+            }
+            return new RedisEntry(values.get(0), values.get(1) == null ? "0" : values.get(1));
+        } catch (Exception e) {
+            log.debug("Redis read failed for {}", key, e);
+            return new RedisEntry(null, null);
+        }
+    }
+
+    // False if the key was evicted since the version was read, or that cannot be told
+    private boolean versionUnchanged(String key, String version) {
+        try {
+            String current = redisTemplate.opsForValue().get(key + VERSION_SUFFIX);
+            return version.equals(current == null ? "0" : current);
+        } catch (Exception e) {
+            log.debug("Redis version read failed for {}", key, e);
+            return false;
+        }
+    }
+
+    // False only if the key was evicted since the version was read
+    private boolean writeRedis(String key, String version, Object value) {
+        try {
+            Long written = redisTemplate.execute(FILL_IF_UNCHANGED, List.of(key, key + VERSION_SUFFIX),
+                    version, objectMapper.writeValueAsString(value), String.valueOf(redisTtl.toMillis()));
+            return written == null || written == 1;
+        } catch (Exception e) {
+            log.debug("Redis write failed for {}", key, e);
+            return true;
+        }
+    }
+
+    private void evict(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        local.invalidateAll(keys);
+        List<String> scriptKeys = new ArrayList<>(keys);
+        keys.forEach(key -> scriptKeys.add(key + VERSION_SUFFIX));
+        try {
+            // The version outlives any value filled under the old one
+            redisTemplate.execute(EVICT, scriptKeys, String.valueOf(redisTtl.toMillis()));
+            keys.forEach(key -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, key));
+        } catch (Exception e) {
+            log.warn("Redis eviction failed for {} keys", keys.size(), e);
+        }
+    }
+
+    private record RedisEntry(String json, String version) {}
+}
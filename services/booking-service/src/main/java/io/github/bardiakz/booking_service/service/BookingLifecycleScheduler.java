@@ -0,0 +1,85 @@
+package io.github.bardiakz.booking_service.service;
+
+import io.github.bardiakz.booking_service.model.BookingStatus;
+import io.github.bardiakz.booking_service.repository.BookingBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings out of the active set once their end time has passed:
+ * CONFIRMED becomes COMPLETED and never-confirmed PENDING becomes REJECTED.
+ * Each tick drains due rows in fixed-size batches, so the PENDING/CONFIRMED
+ * working set scanned by the overlap queries stays small.
+ */
+@Component
+public class BookingLifecycleScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLifecycleScheduler.class);
+
+    private final BookingBatchWriter batchWriter;
+    private final BookingCache bookingCache;
+    private final int batchSize;
+    private final Counter completedCounter;
+    private final Counter rejectedCounter;
+    private final DistributionSummary tickSummary;
+
+    public BookingLifecycleScheduler(BookingBatchWriter batchWriter,
+                                     BookingCache bookingCache,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${booking.lifecycle.batch-size:500}") int batchSize) {
+        this.batchWriter = batchWriter;
+        this.bookingCache = bookingCache;
+        this.batchSize = batchSize;
+        this.completedCounter = Counter.builder("booking.lifecycle.transitions")
+                .tag("status", BookingStatus.COMPLETED.name())
+                .description("Bookings moved to COMPLETED after their end time")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("booking.lifecycle.transitions")
+                .tag("status", BookingStatus.REJECTED.name())
+                .description("Pending bookings rejected after their end time")
+                .register(meterRegistry);
+        this.tickSummary = DistributionSummary.builder("booking.lifecycle.tick.transitions")
+                .description("Bookings transitioned per scheduler tick")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.lifecycle.tick-ms:60000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int completed = drain(BookingStatus.CONFIRMED, BookingStatus.COMPLETED, now);
+            int rejected = drain(BookingStatus.PENDING, BookingStatus.REJECTED, now);
+
+            completedCounter.increment(completed);
+            rejectedCounter.increment(rejected);
+            tickSummary.record(completed + rejected);
+
+            if (completed + rejected > 0) {
+                log.info("Booking lifecycle tick: {} completed, {} rejected", completed, rejected);
+            }
+        } catch (Exception e) {
+            log.error("Booking lifecycle tick failed", e);
+        }
+    }
+
+    // Each batch is its own short statement; stop once a batch comes back partially filled
+    private int drain(BookingStatus from, BookingStatus to, LocalDateTime now) {
+        int total = 0;
+        List<Long> updated;
+        do {
+            updated = batchWriter.transitionEndedBookings(from, to, now, batchSize);
+            bookingCache.evictBookings(updated);
+            total += updated.size();
+        } while (updated.size() == batchSize);
+        return total;
+    }
+}
@@ -1,22 +1,33 @@
 package io.github.bardiakz.booking_service.service;
 
+import io.github.bardiakz.booking_service.dto.BookingCursor;
+import io.github.bardiakz.booking_service.dto.BookingPage;
+import io.github.bardiakz.booking_service.dto.BookingSlot;
 import io.github.bardiakz.booking_service.dto.CreateBookingRequest;
 import io.github.bardiakz.booking_service.dto.BookingResponse;
+import io.github.bardiakz.booking_service.dto.ResourceAvailability;
 import io.github.bardiakz.booking_service.event.BookingEventPublisher;
 import io.github.bardiakz.booking_service.model.Booking;
 import io.github.bardiakz.booking_service.model.BookingStatus;
+import io.github.bardiakz.booking_service.repository.BookingBatchWriter;
 import io.github.bardiakz.booking_service.repository.BookingRepository;
-import jakarta.persistence.OptimisticLockException;
+import io.github.bardiakz.booking_service.repository.BookingView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
-//import org.springframework.retry.annotation.Backoff;
-//import org.springframework.retry.annotation.Retryable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,35 +36,47 @@ public class BookingService {
     private static final Logger log = LoggerFactory.getLogger(BookingService.class);
 
     private final BookingRepository bookingRepository;
+    private final BookingBatchWriter batchWriter;
     private final BookingEventPublisher eventPublisher;
+    private final BookingSlotIndex slotIndex;
+    private final SlotIndexBroadcaster slotChanges;
+    private final BookingCache bookingCache;
+    private final BookingAdmission admission;
+    private final TransactionTemplate transactionTemplate;
 
     public BookingService(BookingRepository bookingRepository,
-                          BookingEventPublisher eventPublisher) {
+                          BookingBatchWriter batchWriter,
+                          BookingEventPublisher eventPublisher,
+                          BookingSlotIndex slotIndex,
+                          SlotIndexBroadcaster slotChanges,
+                          BookingCache bookingCache,
+                          BookingAdmission admission,
+                          PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
+        this.batchWriter = batchWriter;
         this.eventPublisher = eventPublisher;
+        this.slotIndex = slotIndex;
+        this.slotChanges = slotChanges;
+        this.bookingCache = bookingCache;
+        this.admission = admission;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Create a new booking with conflict detection and optimistic locking
-     * Retries up to 3 times if concurrent booking attempts occur
+     * Create a new booking with conflict detection
+     * Writes for the same resource are serialized by BookingAdmission, so the conflict
+     * check and the insert never interleave with a concurrent request for that resource
      */
-    @Transactional
-//    @Retryable(
-//            retryFor = {OptimisticLockException.class, ObjectOptimisticLockingFailureException.class},
-//            maxAttempts = 3,
-//            backoff = @Backoff(delay = 100)
-//    )
     public BookingResponse createBooking(CreateBookingRequest request, String userId, String userRole) {
         log.info("Creating booking for resource {} by user {} ({})", request.resourceId(), userId, userRole);
 
-        // Time Slot Validation: Check for overlapping bookings
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                request.resourceId(),
-                request.startTime(),
-                request.endTime()
-        );
+        return admission.admit(request.resourceId(),
+                () -> transactionTemplate.execute(status -> insertBooking(request, userId, userRole)));
+    }
 
-        if (!overlappingBookings.isEmpty()) {
+    private BookingResponse insertBooking(CreateBookingRequest request, String userId, String userRole) {
+        // Time Slot Validation: Check for overlapping bookings
+        if (hasConflict(request.resourceId(), request.startTime(), request.endTime())) {
             log.warn("Booking conflict detected for resource {} at time slot {} - {}",
                     request.resourceId(), request.startTime(), request.endTime());
             throw new BookingConflictException(
@@ -72,20 +95,84 @@ public class BookingService {
         );
         booking.setStatus(BookingStatus.CONFIRMED);
 
+        Booking savedBooking;
         try {
-            // Save with optimistic locking (@Version)
-            Booking savedBooking = bookingRepository.save(booking);
+            savedBooking = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            // Exclusion constraint caught an overlap written by another instance
+            log.warn("Booking rejected by database overlap constraint for resource {}", request.resourceId());
+            throw new BookingConflictException("Resource is already booked for the selected time slot");
+        }
+        afterCommit(() -> {
+            slotChanges.added(List.of(savedBooking));
+            bookingCache.evictUpcoming(List.of(userId));
+        });
+
+        // Publish BookingConfirmed event
+        eventPublisher.publishBookingConfirmed(savedBooking);
+
+        log.info("Booking created successfully with ID: {}", savedBooking.getId());
+        return BookingResponse.from(savedBooking);
+    }
+
+    /**
+     * Create several bookings on one resource (batch or expanded recurrence) atomically
+     * All slots are validated together, inserted in one JDBC batch and announced with one event
+     * (userEmail, from the gateway, is where notification-service sends the confirmation)
+     */
+    public List<BookingResponse> createBookings(Long resourceId, List<BookingSlot> slots, String purpose,
+                                                String userId, String userRole, String userEmail) {
+        log.info("Creating {} bookings for resource {} by user {} ({})", slots.size(), resourceId, userId, userRole);
+
+        List<BookingSlot> sorted = slots.stream()
+                .sorted(Comparator.comparing(BookingSlot::startTime))
+                .toList();
+
+        // Requested slots must not overlap each other
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).startTime().isBefore(sorted.get(i - 1).endTime())) {
+                throw new BookingConflictException("Requested time slots overlap each other");
+            }
+        }
+
+        return admission.admit(resourceId,
+                () -> transactionTemplate.execute(status ->
+                        insertBookings(resourceId, sorted, purpose, userId, userRole, userEmail)));
+    }
 
-            // Publish BookingConfirmed event
-            eventPublisher.publishBookingConfirmed(savedBooking);
+    private List<BookingResponse> insertBookings(Long resourceId, List<BookingSlot> sorted, String purpose,
+                                                 String userId, String userRole, String userEmail) {
+        if (hasConflict(resourceId, sorted)) {
+            log.warn("Booking conflict detected for resource {} in batch of {} slots", resourceId, sorted.size());
+            throw new BookingConflictException(
+                    "Resource is already booked for one or more of the selected time slots"
+            );
+        }
 
-            log.info("Booking created successfully with ID: {}", savedBooking.getId());
-            return BookingResponse.from(savedBooking);
+        List<Booking> bookings = sorted.stream().map(slot -> {
+            Booking booking = new Booking(resourceId, userId, userRole, slot.startTime(), slot.endTime(), purpose);
+            booking.setStatus(BookingStatus.CONFIRMED);
+            return booking;
+        }).collect(Collectors.toList());
 
-        } catch (OptimisticLockException | ObjectOptimisticLockingFailureException e) {
-            log.warn("Optimistic lock exception - concurrent booking attempt detected. Retrying...");
-            throw e; // Will be retried by @Retryable
+        try {
+            batchWriter.insertAll(bookings);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch booking rejected by database overlap constraint for resource {}", resourceId);
+            throw new BookingConflictException(
+                    "Resource is already booked for one or more of the selected time slots");
         }
+        afterCommit(() -> {
+            slotChanges.added(bookings);
+            bookingCache.evictUpcoming(List.of(userId));
+        });
+
+        eventPublisher.publishBookingsConfirmed(bookings, userEmail);
+
+        log.info("Created {} bookings for resource {}", bookings.size(), resourceId);
+        return bookings.stream()
+                .map(BookingResponse::from)
+                .collect(Collectors.toList());
     }
 
     public List<BookingResponse> getMyBookings(String userId) {
@@ -97,8 +184,15 @@ public class BookingService {
 
     public List<BookingResponse> getUpcomingBookings(String userId) {
         log.debug("Fetching upcoming bookings for user: {}", userId);
-        return bookingRepository.findUpcomingBookingsForUser(userId, LocalDateTime.now()).stream()
-                .map(BookingResponse::from)
+        List<BookingResponse> upcoming = bookingCache.getUpcoming(userId, () ->
+                bookingRepository.findUpcomingBookingsForUser(userId, LocalDateTime.now()).stream()
+                        .map(BookingResponse::from)
+                        .collect(Collectors.toList()));
+
+        // A cached list may contain bookings that have started since it was loaded
+        LocalDateTime now = LocalDateTime.now();
+        return upcoming.stream()
+                .filter(booking -> booking.startTime().isAfter(now))
                 .collect(Collectors.toList());
     }
 
@@ -109,11 +203,91 @@ public class BookingService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Availability of many resources in one call: whether each is free for the whole
+     * window, and the free gaps inside it. Served from the slot index once it is warm.
+     */
+    public List<ResourceAvailability> getAvailability(List<Long> resourceIds,
+                                                      LocalDateTime startTime, LocalDateTime endTime) {
+        log.debug("Checking availability of {} resources from {} to {}", resourceIds.size(), startTime, endTime);
+
+        Map<Long, List<BookingSlotIndex.Slot>> busy;
+        if (slotIndex.isReady()) {
+            busy = resourceIds.stream().distinct().collect(Collectors.toMap(
+                    id -> id, id -> slotIndex.overlapping(id, startTime, endTime)));
+        } else {
+            busy = bookingRepository.findOverlappingBookingsForResources(resourceIds, startTime, endTime).stream()
+                    .map(b -> Map.entry(b.getResourceId(), BookingSlotIndex.Slot.of(b)))
+                    .collect(Collectors.groupingBy(Map.Entry::getKey,
+                            Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        }
+
+        return resourceIds.stream().distinct()
+                .map(id -> toAvailability(id, busy.getOrDefault(id, List.of()), startTime, endTime))
+                .collect(Collectors.toList());
+    }
+
+    private ResourceAvailability toAvailability(Long resourceId, List<BookingSlotIndex.Slot> busy,
+                                                LocalDateTime startTime, LocalDateTime endTime) {
+        List<BookingSlot> freeSlots = new ArrayList<>();
+        LocalDateTime cursor = startTime;
+        for (BookingSlotIndex.Slot slot : busy) {
+            if (slot.startTime().isAfter(cursor)) {
+                freeSlots.add(new BookingSlot(cursor, slot.startTime()));
+            }
+            if (slot.endTime().isAfter(cursor)) {
+                cursor = slot.endTime();
+            }
+        }
+        if (endTime.isAfter(cursor)) {
+            freeSlots.add(new BookingSlot(cursor, endTime));
+        }
+        return new ResourceAvailability(resourceId, busy.isEmpty(), freeSlots);
+    }
+
+    public BookingPage getMyBookingsPage(String userId, String cursor, int limit) {
+        log.debug("Fetching bookings page for user: {}", userId);
+        BookingCursor after = BookingCursor.decode(cursor);
+        return toPage(bookingRepository.findPageByUserId(
+                userId, after.startTime(), after.id(), Limit.of(limit + 1)), limit);
+    }
+
+    public BookingPage getBookingsByResourcePage(Long resourceId, String cursor, int limit) {
+        log.debug("Fetching bookings page for resource: {}", resourceId);
+        BookingCursor after = BookingCursor.decode(cursor);
+        return toPage(bookingRepository.findPageByResourceId(
+                resourceId, after.startTime(), after.id(), Limit.of(limit + 1)), limit);
+    }
+
+    public BookingPage getBookingsByStatusPage(BookingStatus status, String cursor, int limit) {
+        log.debug("Fetching bookings page with status: {}", status);
+        BookingCursor after = BookingCursor.decode(cursor);
+        return toPage(bookingRepository.findPageByStatus(
+                status, after.startTime(), after.id(), Limit.of(limit + 1)), limit);
+    }
+
+    // One extra row is fetched to tell whether another page follows
+    private BookingPage toPage(List<BookingView> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<BookingResponse> items = rows.stream()
+                .limit(limit)
+                .map(BookingResponse::from)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            BookingResponse last = items.get(items.size() - 1);
+            nextCursor = new BookingCursor(last.startTime(), last.id()).encode();
+        }
+        return new BookingPage(items, nextCursor);
+    }
+
     public BookingResponse getBookingById(Long id) {
         log.debug("Fetching booking with ID: {}", id);
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + id));
-        return BookingResponse.from(booking);
+        return bookingCache.getBooking(id, () -> {
+            Booking booking = bookingRepository.findById(id)
+                    .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + id));
+            return BookingResponse.from(booking);
+        });
     }
 
     @Transactional
@@ -139,6 +313,11 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        afterCommit(() -> {
+            slotChanges.removed(booking);
+            bookingCache.evictBookings(List.of(id));
+            bookingCache.evictUpcoming(List.of(booking.getUserId()));
+        });
 
         // Publish BookingCancelled event
         eventPublisher.publishBookingCancelled(booking);
@@ -147,25 +326,63 @@ public class BookingService {
     }
 
     // Handle ResourceStatusChanged event from Resource Service
-    @Transactional
     public void handleResourceStatusChanged(Long resourceId, String newStatus) {
         log.info("Handling resource status changed: {} -> {}", resourceId, newStatus);
 
         if ("UNAVAILABLE".equals(newStatus) || "MAINTENANCE".equals(newStatus)) {
-            // Cancel all active bookings for this resource
-            List<Booking> activeBookings = bookingRepository.findActiveBookingsForResource(
-                    resourceId,
-                    LocalDateTime.now()
-            );
-
-            for (Booking booking : activeBookings) {
-                booking.setStatus(BookingStatus.REJECTED);
-                bookingRepository.save(booking);
-                eventPublisher.publishBookingCancelled(booking);
-            }
+            // Reject all active bookings for this resource with one UPDATE ... RETURNING
+            List<Booking> rejected = admission.admit(resourceId, () -> transactionTemplate.execute(status -> {
+                List<Booking> rows = batchWriter.rejectActiveBookings(resourceId, LocalDateTime.now());
+                eventPublisher.publishBookingsCancelled(rows);
+                afterCommit(() -> {
+                    slotChanges.resourceRemoved(resourceId);
+                    bookingCache.evictBookings(rows.stream().map(Booking::getId).toList());
+                    bookingCache.evictUpcoming(rows.stream().map(Booking::getUserId).toList());
+                });
+                return rows;
+            }));
 
             log.info("Cancelled {} active bookings due to resource status change",
-                    activeBookings.size());
+                    rejected.size());
+        }
+    }
+
+    /**
+     * A warm slot index clears the request on its own; a conflict it reports may be a booking
+     * cancelled on another instance whose change has not arrived, so the database confirms it
+     */
+    private boolean hasConflict(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (slotIndex.isReady() && !slotIndex.hasConflict(resourceId, startTime, endTime)) {
+            return false;
         }
+        return !bookingRepository.findOverlappingBookings(resourceId, startTime, endTime).isEmpty();
+    }
+
+    /**
+     * Batch variant: the index checks each slot, the database check is a single range query
+     */
+    private boolean hasConflict(Long resourceId, List<BookingSlot> sorted) {
+        if (slotIndex.isReady() && sorted.stream().noneMatch(slot ->
+                slotIndex.hasConflict(resourceId, slot.startTime(), slot.endTime()))) {
+            return false;
+        }
+        List<Booking> existing = bookingRepository.findOverlappingBookings(
+                resourceId, sorted.get(0).startTime(), sorted.get(sorted.size() - 1).endTime());
+        return existing.stream().anyMatch(booking -> sorted.stream().anyMatch(slot ->
+                booking.getStartTime().isBefore(slot.endTime()) && booking.getEndTime().isAfter(slot.startTime())));
+    }
+
+    // Only touch the slot index once the database change is durable
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package io.github.bardiakz.booking_service.service;
+
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of active (PENDING/CONFIRMED) booking slots per resource.
+ * Slots are kept sorted by start time, together with the longest slot of the resource,
+ * so a conflict check only has to look at slots starting within that length before the
+ * requested end time. This stays correct if overlapping rows already exist in the table.
+ * <p>
+ * Changes made on other instances arrive through SlotIndexBroadcaster, which can miss
+ * some, so a conflict found here is only a hint that callers confirm with the database.
+ * Across instances the bookings_no_overlap exclusion constraint (BookingConstraintInstaller)
+ * prevents double bookings the index does not know about.
+ */
+@Component
+public class BookingSlotIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSlotIndex.class);
+
+    private static final Comparator<Slot> BY_START =
+            Comparator.comparing(Slot::startTime).thenComparing(Slot::bookingId);
+
+    private final BookingRepository bookingRepository;
+    private volatile Map<Long, ResourceSlots> slotsByResource = new ConcurrentHashMap<>();
+
+    // Changes made while a warm-up is loading, replayed onto the loaded index; guarded by this
+    private List<Consumer<Map<Long, ResourceSlots>>> duringWarmUp = null;
+
+    private volatile boolean ready = false;
+
+    public BookingSlotIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Warm the index from the bookings table once the application has started.
+     * The index is built aside and swapped in; bookings committed while the table is
+     * read are replayed onto it, so none of them is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        synchronized (this) {
+            duringWarmUp = new ArrayList<>();
+        }
+        List<Booking> activeBookings = bookingRepository.findAllActiveBookings(LocalDateTime.now());
+        Map<Long, ResourceSlots> loaded = new ConcurrentHashMap<>();
+        activeBookings.forEach(booking -> add(loaded, booking.getResourceId(), Slot.of(booking)));
+
+        synchronized (this) {
+            duringWarmUp.forEach(change -> change.accept(loaded));
+            duringWarmUp = null;
+            slotsByResource = loaded;
+        }
+        ready = true;
+        log.info("Booking slot index warmed with {} active bookings on {} resources",
+                activeBookings.size(), loaded.size());
+    }
+
+    /**
+     * False until the warm-up has finished; callers must fall back to the database meanwhile
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean hasConflict(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        ResourceSlots resource = slotsByResource.get(resourceId);
+        if (resource == null) {
+            return false;
+        }
+        for (Slot slot : resource.startingBefore(startTime, endTime)) {
+            if (slot.endTime().isAfter(startTime)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Slots of a resource that overlap the given window, ordered by start time
+     */
+    List<Slot> overlapping(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        ResourceSlots resource = slotsByResource.get(resourceId);
+        if (resource == null) {
+            return List.of();
+        }
+        List<Slot> result = new ArrayList<>();
+        for (Slot slot : resource.startingBefore(startTime, endTime)) {
+            if (slot.endTime().isAfter(startTime)) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    public void add(Booking booking) {
+        add(booking.getResourceId(), Slot.of(booking));
+    }
+
+    public void remove(Booking booking) {
+        remove(booking.getResourceId(), Slot.of(booking));
+    }
+
+    void add(Long resourceId, Slot slot) {
+        apply(index -> add(index, resourceId, slot));
+    }
+
+    void remove(Long resourceId, Slot slot) {
+        apply(index -> {
+            ResourceSlots resource = index.get(resourceId);
+            if (resource != null) {
+                resource.slots().remove(slot);
+            }
+        });
+    }
+
+    public void removeResource(Long resourceId) {
+        apply(index -> index.remove(resourceId));
+    }
+
+    // Every change is idempotent, so applying it to both the live and the loading index is safe
+    private void apply(Consumer<Map<Long, ResourceSlots>> change) {
+        synchronized (this) {
+            if (duringWarmUp != null) {
+                duringWarmUp.add(change);
+            }
+        }
+        change.accept(slotsByResource);
+    }
+
+    private static void add(Map<Long, ResourceSlots> index, Long resourceId, Slot slot) {
+        ResourceSlots resource = index.computeIfAbsent(resourceId, id -> new ResourceSlots());
+        resource.add(slot);
+        resource.pruneExpired();
+    }
+
+    record Slot(Long bookingId, LocalDateTime startTime, LocalDateTime endTime) {
+        static Slot of(Booking booking) {
+            return new Slot(booking.getId(), booking.getStartTime(), booking.getEndTime());
+        }
+    }
+
+    /**
+     * Slots of one resource and the length of the longest one ever added (never shrinks)
+     */
+    private record ResourceSlots(NavigableSet<Slot> slots, AtomicLong longestNanos) {
+
+        ResourceSlots() {
+            this(new ConcurrentSkipListSet<>(BY_START), new AtomicLong());
+        }
+
+        void add(Slot slot) {
+            longestNanos.accumulateAndGet(Duration.between(slot.startTime(), slot.endTime()).toNanos(), Math::max);
+            slots.add(slot);
+        }
+
+        // Only these slots can reach into [startTime, endTime)
+        NavigableSet<Slot> startingBefore(LocalDateTime startTime, LocalDateTime endTime) {
+            LocalDateTime earliest = startTime.minusNanos(longestNanos.get());
+            return slots.subSet(new Slot(Long.MIN_VALUE, earliest, earliest), true,
+                    new Slot(Long.MIN_VALUE, endTime, endTime), false);
+        }
+
+        // Slots that already ended can never conflict with a future booking
+        void pruneExpired() {
+            LocalDateTime now = LocalDateTime.now();
+            for (Slot slot : slots) {
+                if (slot.endTime().isAfter(now)) {
+                    return;
+                }
+                slots.remove(slot);
+            }
+        }
+    }
+}
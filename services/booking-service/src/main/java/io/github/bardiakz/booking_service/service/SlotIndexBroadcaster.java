@@ -0,0 +1,98 @@
+package io.github.bardiakz.booking_service.service;
+
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.service.BookingSlotIndex.Slot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Keeps the slot index of every instance in step with bookings written on any of them.
+ * A change is applied to this instance's index and broadcast on a Redis channel; every
+ * instance (this one included, changes are idempotent) applies it on receipt.
+ * Messages sent while an instance is disconnected from Redis are lost until its next warm-up.
+ */
+@Component
+public class SlotIndexBroadcaster implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotIndexBroadcaster.class);
+
+    public static final String CHANNEL = "booking-slot-index";
+
+    private final BookingSlotIndex slotIndex;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public SlotIndexBroadcaster(BookingSlotIndex slotIndex, StringRedisTemplate redisTemplate,
+                                ObjectMapper objectMapper) {
+        this.slotIndex = slotIndex;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void added(Collection<Booking> bookings) {
+        bookings.forEach(booking -> publish(SlotChange.of(ChangeType.ADD, booking)));
+    }
+
+    public void removed(Booking booking) {
+        publish(SlotChange.of(ChangeType.REMOVE, booking));
+    }
+
+    public void resourceRemoved(Long resourceId) {
+        publish(new SlotChange(ChangeType.REMOVE_RESOURCE, resourceId, null, null, null));
+    }
+
+    /**
+     * Change broadcast by another instance (or this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            apply(objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8), SlotChange.class));
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable slot index change", e);
+        }
+    }
+
+    private void publish(SlotChange change) {
+        apply(change);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(change));
+        } catch (Exception e) {
+            log.warn("Slot index change for resource {} not broadcast", change.resourceId(), e);
+        }
+    }
+
+    private void apply(SlotChange change) {
+        switch (change.type()) {
+            case ADD -> slotIndex.add(change.resourceId(), change.slot());
+            case REMOVE -> slotIndex.remove(change.resourceId(), change.slot());
+            case REMOVE_RESOURCE -> slotIndex.removeResource(change.resourceId());
+        }
+    }
+
+    enum ChangeType {
+        ADD, REMOVE, REMOVE_RESOURCE
+    }
+
+    record SlotChange(ChangeType type, Long resourceId, Long bookingId,
+                      LocalDateTime startTime, LocalDateTime endTime) {
+
+        static SlotChange of(ChangeType type, Booking booking) {
+            return new SlotChange(type, booking.getResourceId(), booking.getId(),
+                    booking.getStartTime(), booking.getEndTime());
+        }
+
+        Slot slot() {
+            return new Slot(bookingId, startTime, endTime);
+        }
+    }
+}
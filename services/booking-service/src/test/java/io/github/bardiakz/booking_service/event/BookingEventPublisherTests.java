@@ -0,0 +1,49 @@
+package io.github.bardiakz.booking_service.event;
+
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.model.OutboxEvent;
+import io.github.bardiakz.booking_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class BookingEventPublisherTests {
+
+	@Test
+	void bookingsConfirmedCarriesWhatNotificationServiceReads() {
+		OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+		ObjectMapper objectMapper = JsonMapper.builder().build();
+		BookingEventPublisher publisher = new BookingEventPublisher(outbox, objectMapper);
+
+		LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+		Booking booking = new Booking(5L, "alice", "STUDENT", start, start.plusHours(1), "Lab");
+		booking.setId(11L);
+		publisher.publishBookingsConfirmed(List.of(booking), "alice@example.com");
+
+		ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+		verify(outbox).save(saved.capture());
+		assertEquals("booking.batch.confirmed", saved.getValue().getRoutingKey());
+		JsonNode event = objectMapper.readTree(saved.getValue().getPayload());
+
+		// notification-service's BookingsConfirmedEvent: LocalDateTime fields are ISO strings
+		assertEquals("alice", event.get("userId").asString());
+		assertEquals("alice@example.com", event.get("userEmail").asString());
+		assertEquals(5L, event.get("resourceId").asLong());
+		assertDoesNotThrow(() -> LocalDateTime.parse(event.get("timestamp").asString()));
+		JsonNode slot = event.get("bookings").get(0);
+		assertEquals(11L, slot.get("bookingId").asLong());
+		assertEquals(start, LocalDateTime.parse(slot.get("startTime").asString()));
+		assertEquals(start.plusHours(1), LocalDateTime.parse(slot.get("endTime").asString()));
+	}
+
+}
@@ -0,0 +1,131 @@
+package io.github.bardiakz.booking_service.service;
+
+import io.github.bardiakz.booking_service.dto.CreateBookingRequest;
+import io.github.bardiakz.booking_service.event.BookingEventPublisher;
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.repository.BookingBatchWriter;
+import io.github.bardiakz.booking_service.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import tools.jackson.databind.ObjectMapper;
+
+class BookingAdmissionTests {
+
+	@Test
+	void concurrentRequestsForSameSlotAdmitExactlyOne() throws Exception {
+		BookingRepository repository = mock(BookingRepository.class);
+		AtomicLong ids = new AtomicLong();
+		ConcurrentLinkedQueue<Booking> saved = new ConcurrentLinkedQueue<>();
+		when(repository.findAllActiveBookings(any())).thenReturn(List.of());
+		when(repository.save(any(Booking.class))).thenAnswer(invocation -> {
+			Booking booking = invocation.getArgument(0);
+			booking.setId(ids.incrementAndGet());
+			saved.add(booking);
+			return booking;
+		});
+		// Conflicts reported by the index are confirmed here
+		when(repository.findOverlappingBookings(eq(42L), any(), any())).thenAnswer(invocation -> List.copyOf(saved));
+
+		BookingService service = service(repository);
+
+		LocalDateTime start = LocalDateTime.now().plusDays(1);
+		CreateBookingRequest request = new CreateBookingRequest(42L, start, start.plusHours(1), "Lab");
+
+		int threads = 32;
+		AtomicInteger successes = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			String userId = "user-" + i;
+			pool.submit(() -> {
+				go.await();
+				try {
+					service.createBooking(request, userId, "STUDENT");
+					successes.incrementAndGet();
+				} catch (BookingConflictException e) {
+					conflicts.incrementAndGet();
+				}
+				return null;
+			});
+		}
+		go.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertEquals(1, successes.get());
+		assertEquals(threads - 1, conflicts.get());
+	}
+
+	@Test
+	void slotCancelledOnAnotherInstanceIsNotAConflict() {
+		BookingRepository repository = mock(BookingRepository.class);
+		LocalDateTime start = LocalDateTime.now().plusDays(1);
+		Booking cancelledElsewhere = new Booking(42L, "user-1", "STUDENT", start, start.plusHours(1), "Lab");
+		cancelledElsewhere.setId(7L);
+		when(repository.findAllActiveBookings(any())).thenReturn(List.of(cancelledElsewhere));
+		when(repository.findOverlappingBookings(eq(42L), any(), any())).thenReturn(List.of());
+		when(repository.save(any(Booking.class))).thenAnswer(invocation -> {
+			Booking booking = invocation.getArgument(0);
+			booking.setId(8L);
+			return booking;
+		});
+
+		BookingService service = service(repository);
+
+		service.createBooking(new CreateBookingRequest(42L, start, start.plusHours(1), "Lab"), "user-2", "STUDENT");
+	}
+
+	private static BookingService service(BookingRepository repository) {
+		BookingSlotIndex index = new BookingSlotIndex(repository);
+		index.warmUp();
+		SlotIndexBroadcaster broadcaster = new SlotIndexBroadcaster(index, mock(StringRedisTemplate.class),
+				mock(ObjectMapper.class));
+		return new BookingService(repository, mock(BookingBatchWriter.class), mock(BookingEventPublisher.class),
+				index, broadcaster, mock(BookingCache.class), new BookingAdmission(16), new NoOpTransactionManager());
+	}
+
+	/**
+	 * Runs transaction callbacks (including afterCommit) without a database
+	 */
+	static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package io.github.bardiakz.booking_service.service;
+
+import io.github.bardiakz.booking_service.dto.BookingResponse;
+import io.github.bardiakz.booking_service.model.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingCacheTests {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().build();
+	private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, String> values = mock(ValueOperations.class);
+	private final BookingCache cache = new BookingCache(redis, objectMapper, new SimpleMeterRegistry(), 100, 60, 600);
+
+	@Test
+	void redisHitEvictedMeanwhileStaysOutOfTheLocalTier() {
+		BookingResponse cached = response();
+		when(redis.opsForValue()).thenReturn(values);
+		when(values.multiGet(anyList())).thenReturn(Arrays.asList(objectMapper.writeValueAsString(cached), "3"));
+		// Evicted between the read and the local put
+		when(values.get("booking:id:1:v")).thenReturn("4");
+
+		assertEquals(cached, cache.getBooking(1L, () -> null));
+		assertEquals(cached, cache.getBooking(1L, () -> null));
+
+		verify(values, times(2)).multiGet(anyList());
+	}
+
+	@Test
+	void redisHitWithCurrentVersionIsKeptLocally() {
+		BookingResponse cached = response();
+		when(redis.opsForValue()).thenReturn(values);
+		when(values.multiGet(anyList())).thenReturn(Arrays.asList(objectMapper.writeValueAsString(cached), "3"));
+		when(values.get("booking:id:1:v")).thenReturn("3");
+
+		assertEquals(cached, cache.getBooking(1L, () -> null));
+		assertEquals(cached, cache.getBooking(1L, () -> null));
+
+		verify(values, times(1)).multiGet(anyList());
+	}
+
+	private static BookingResponse response() {
+		LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+		Booking booking = new Booking(5L, "alice", "STUDENT", start, start.plusHours(1), "Lab");
+		booking.setId(1L);
+		return BookingResponse.from(booking);
+	}
+
+}
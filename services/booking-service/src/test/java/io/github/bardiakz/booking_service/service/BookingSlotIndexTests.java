@@ -0,0 +1,118 @@
+package io.github.bardiakz.booking_service.service;
+
+import io.github.bardiakz.booking_service.model.Booking;
+import io.github.bardiakz.booking_service.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingSlotIndexTests {
+
+	private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+	private final BookingSlotIndex index = new BookingSlotIndex(null);
+
+	@Test
+	void detectsOverlapsAndAllowsAdjacentSlots() {
+		index.add(booking(1L, 10L, 9, 10));
+		index.add(booking(2L, 10L, 12, 13));
+
+		assertTrue(index.hasConflict(10L, at(9).plusMinutes(30), at(11)));
+		assertTrue(index.hasConflict(10L, at(11), at(14)));
+		assertTrue(index.hasConflict(10L, at(8), at(20)));
+		assertFalse(index.hasConflict(10L, at(10), at(12)));
+		assertFalse(index.hasConflict(11L, at(9), at(10)));
+	}
+
+	@Test
+	void removedSlotsNoLongerConflict() {
+		Booking booking = booking(1L, 10L, 9, 10);
+		index.add(booking);
+		index.add(booking(2L, 20L, 9, 10));
+
+		index.remove(booking);
+		index.removeResource(20L);
+
+		assertFalse(index.hasConflict(10L, at(9), at(10)));
+		assertFalse(index.hasConflict(20L, at(9), at(10)));
+	}
+
+	@Test
+	void longSlotIsFoundBehindShorterOverlappingOnes() {
+		// Overlapping rows can predate the exclusion constraint
+		index.add(booking(1L, 10L, 8, 18));
+		index.add(booking(2L, 10L, 9, 10));
+
+		assertTrue(index.hasConflict(10L, at(15), at(16)));
+		assertEquals(2, index.overlapping(10L, at(9), at(12)).size());
+	}
+
+	@Test
+	void bookingsAddedDuringWarmUpSurviveIt() {
+		BookingRepository repository = mock(BookingRepository.class);
+		BookingSlotIndex warming = new BookingSlotIndex(repository);
+		when(repository.findAllActiveBookings(any())).thenAnswer(invocation -> {
+			// Committed after the table was read
+			warming.add(booking(2L, 10L, 12, 13));
+			return List.of(booking(1L, 10L, 9, 10));
+		});
+
+		warming.warmUp();
+
+		assertTrue(warming.hasConflict(10L, at(9), at(10)));
+		assertTrue(warming.hasConflict(10L, at(12), at(13)));
+	}
+
+	@Test
+	void changesReachTheIndexOfOtherInstances() {
+		ObjectMapper objectMapper = JsonMapper.builder().build();
+		StringRedisTemplate redis = mock(StringRedisTemplate.class);
+		SlotIndexBroadcaster here = new SlotIndexBroadcaster(index, redis, objectMapper);
+		BookingSlotIndex elsewhere = new BookingSlotIndex(null);
+		SlotIndexBroadcaster there = new SlotIndexBroadcaster(elsewhere, mock(StringRedisTemplate.class), objectMapper);
+
+		Booking booking = booking(1L, 10L, 9, 10);
+		here.added(List.of(booking));
+		here.removed(booking);
+
+		ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+		verify(redis, times(2)).convertAndSend(eq(SlotIndexBroadcaster.CHANNEL), sent.capture());
+		there.onMessage(message(sent.getAllValues().get(0)), null);
+		assertTrue(elsewhere.hasConflict(10L, at(9), at(10)));
+		there.onMessage(message(sent.getAllValues().get(1)), null);
+		assertFalse(elsewhere.hasConflict(10L, at(9), at(10)));
+	}
+
+	private static DefaultMessage message(String body) {
+		return new DefaultMessage(SlotIndexBroadcaster.CHANNEL.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Booking booking(Long id, Long resourceId, int startHour, int endHour) {
+		Booking booking = new Booking(resourceId, "user", "STUDENT", at(startHour), at(endHour), null);
+		booking.setId(id);
+		return booking;
+	}
+
+	private static LocalDateTime at(int hour) {
+		return BASE.withHour(hour).withMinute(0).withSecond(0);
+	}
+
+}
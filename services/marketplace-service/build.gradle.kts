@@ -27,6 +27,10 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+
+    // In-process catalog page cache
+    implementation("com.github.ben-manes.caffeine:caffeine")
 
     // PostgreSQL
     runtimeOnly("org.postgresql:postgresql")
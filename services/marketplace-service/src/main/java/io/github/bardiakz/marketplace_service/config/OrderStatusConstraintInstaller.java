@@ -0,0 +1,97 @@
+package io.github.bardiakz.marketplace_service.config;
+
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the orders.status check constraint in line with OrderStatus.
+ * Hibernate creates the constraint with the table but ddl-auto=update never widens it,
+ * so without this a database created before EXPIRED existed would reject expired orders.
+ * The constraint is only replaced when its allowed values differ, and the new one is
+ * added NOT VALID and validated afterwards, so orders is never locked for a full scan.
+ * OrderExpirySweeper does not run until this has succeeded.
+ */
+@Component
+public class OrderStatusConstraintInstaller {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusConstraintInstaller.class);
+
+    public static final String CONSTRAINT_NAME = "orders_status_check";
+
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean installed = false;
+
+    public OrderStatusConstraintInstaller(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void install() {
+        ensureInstalled();
+    }
+
+    /**
+     * Install the constraint unless that already succeeded
+     * @return true once the constraint accepts every OrderStatus
+     */
+    public synchronized boolean ensureInstalled() {
+        if (installed) {
+            return true;
+        }
+        Set<String> statuses = Arrays.stream(OrderStatus.values())
+                .map(OrderStatus::name)
+                .collect(Collectors.toCollection(TreeSet::new));
+        try {
+            List<String> current = jdbcTemplate.queryForList(
+                    "SELECT pg_get_constraintdef(oid) FROM pg_constraint " +
+                    "WHERE conrelid = 'orders'::regclass AND conname = ?", String.class, CONSTRAINT_NAME);
+            if (current.size() == 1 && statuses.equals(allowedValues(current.getFirst()))) {
+                installed = true;
+                return true;
+            }
+
+            String values = statuses.stream().map(status -> "'" + status + "'").collect(Collectors.joining(", "));
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE orders DROP CONSTRAINT IF EXISTS " + CONSTRAINT_NAME);
+                jdbcTemplate.execute("ALTER TABLE orders ADD CONSTRAINT " + CONSTRAINT_NAME +
+                        " CHECK (status IN (" + values + ")) NOT VALID");
+            });
+            // Scans the table under a lock that lets orders be written meanwhile
+            jdbcTemplate.execute("ALTER TABLE orders VALIDATE CONSTRAINT " + CONSTRAINT_NAME);
+            installed = true;
+            log.info("Order status constraint set to ({})", values);
+        } catch (Exception e) {
+            log.error("Failed to update order status constraint", e);
+        }
+        return installed;
+    }
+
+    // The quoted literals of the constraint definition, e.g. CHECK (status IN ('PENDING', ...))
+    static Set<String> allowedValues(String definition) {
+        Set<String> values = new TreeSet<>();
+        Matcher matcher = QUOTED.matcher(definition);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+}
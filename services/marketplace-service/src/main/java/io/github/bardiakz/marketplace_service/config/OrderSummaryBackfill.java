@@ -0,0 +1,36 @@
+package io.github.bardiakz.marketplace_service.config;
+
+import io.github.bardiakz.marketplace_service.repository.OrderSummaryWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates order_summaries rows for orders that predate the read model and
+ * corrects any that drifted. Runs before the payment listeners and the expiry
+ * sweeper start, so this instance does not race its own saga steps.
+ */
+@Component
+public class OrderSummaryBackfill implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryBackfill.class);
+
+    private final OrderSummaryWriter summaryWriter;
+
+    public OrderSummaryBackfill(OrderSummaryWriter summaryWriter) {
+        this.summaryWriter = summaryWriter;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            int changed = summaryWriter.backfill();
+            if (changed > 0) {
+                log.info("Backfilled or corrected {} order summaries", changed);
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill order summaries", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.bardiakz.marketplace_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adds the full-text search column and indexes to the products table.
+ * search_vector is a stored generated column, so Postgres keeps it in sync on every
+ * product insert/update and Hibernate never has to know about it.
+ * <p>
+ * Runs before the web server and listeners start and fails startup if it cannot finish,
+ * since /search depends on the column. Adding the column rewrites products once; the
+ * indexes are built CONCURRENTLY so product writes keep going meanwhile.
+ */
+@Component
+public class ProductSearchIndexInstaller implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexInstaller.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductSearchIndexInstaller(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Integer columns = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM information_schema.columns " +
+                    "WHERE table_name = 'products' AND column_name = 'search_vector'", Integer.class);
+            if (columns == null || columns == 0) {
+                log.info("Adding products.search_vector (rewrites the products table)");
+                jdbcTemplate.execute("ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                        "GENERATED ALWAYS AS (" +
+                        "setweight(to_tsvector('english', coalesce(name, '')), 'A') || " +
+                        "setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED");
+            }
+            createIndex("idx_products_search", "USING gin (search_vector)");
+            createIndex("idx_products_active_category_price", "(category, price) WHERE active = true");
+            log.info("Product search indexes installed");
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot install product search indexes", e);
+        }
+    }
+
+    // A concurrent build that failed leaves an invalid index behind, which is dropped and built again
+    private void createIndex(String name, String definition) {
+        List<Boolean> valid = jdbcTemplate.queryForList(
+                "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?",
+                Boolean.class, name);
+        if (valid.contains(Boolean.TRUE)) {
+            return;
+        }
+        if (!valid.isEmpty()) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON products " + definition);
+    }
+}
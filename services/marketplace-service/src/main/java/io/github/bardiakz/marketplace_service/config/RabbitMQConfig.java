@@ -20,6 +20,11 @@ public class RabbitMQConfig {
     public static final String MARKETPLACE_PAYMENT_COMPLETED_QUEUE = "marketplace.payment.completed.queue";
     public static final String MARKETPLACE_PAYMENT_FAILED_QUEUE = "marketplace.payment.failed.queue";
 
+    // Payment events that still fail once listener retries are exhausted
+    public static final String MARKETPLACE_PAYMENT_DLX = "marketplace.payment.dlx";
+    public static final String MARKETPLACE_PAYMENT_COMPLETED_DLQ = "marketplace.payment.completed.dlq";
+    public static final String MARKETPLACE_PAYMENT_FAILED_DLQ = "marketplace.payment.failed.dlq";
+
     // Marketplace Exchange
     @Bean
     public TopicExchange marketplaceExchange() {
@@ -46,12 +51,16 @@ public class RabbitMQConfig {
 
     @Bean
     public Queue marketplacePaymentCompletedQueue() {
-        return new Queue(MARKETPLACE_PAYMENT_COMPLETED_QUEUE, true);
+        return QueueBuilder.durable(MARKETPLACE_PAYMENT_COMPLETED_QUEUE)
+                .deadLetterExchange(MARKETPLACE_PAYMENT_DLX)
+                .build();
     }
 
     @Bean
     public Queue marketplacePaymentFailedQueue() {
-        return new Queue(MARKETPLACE_PAYMENT_FAILED_QUEUE, true);
+        return QueueBuilder.durable(MARKETPLACE_PAYMENT_FAILED_QUEUE)
+                .deadLetterExchange(MARKETPLACE_PAYMENT_DLX)
+                .build();
     }
 
     @Bean
@@ -72,6 +81,40 @@ public class RabbitMQConfig {
                 .with("payment.failed");
     }
 
+    // Dead letters keep their original routing key, so the DLQs bind with the same keys
+    @Bean
+    public DirectExchange marketplacePaymentDeadLetterExchange() {
+        return new DirectExchange(MARKETPLACE_PAYMENT_DLX);
+    }
+
+    @Bean
+    public Queue marketplacePaymentCompletedDeadLetterQueue() {
+        return new Queue(MARKETPLACE_PAYMENT_COMPLETED_DLQ, true);
+    }
+
+    @Bean
+    public Queue marketplacePaymentFailedDeadLetterQueue() {
+        return new Queue(MARKETPLACE_PAYMENT_FAILED_DLQ, true);
+    }
+
+    @Bean
+    public Binding marketplacePaymentCompletedDeadLetterBinding(
+            Queue marketplacePaymentCompletedDeadLetterQueue,
+            DirectExchange marketplacePaymentDeadLetterExchange) {
+        return BindingBuilder.bind(marketplacePaymentCompletedDeadLetterQueue)
+                .to(marketplacePaymentDeadLetterExchange)
+                .with("payment.completed");
+    }
+
+    @Bean
+    public Binding marketplacePaymentFailedDeadLetterBinding(
+            Queue marketplacePaymentFailedDeadLetterQueue,
+            DirectExchange marketplacePaymentDeadLetterExchange) {
+        return BindingBuilder.bind(marketplacePaymentFailedDeadLetterQueue)
+                .to(marketplacePaymentDeadLetterExchange)
+                .with("payment.failed");
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new JacksonJsonMessageConverter();
@@ -6,9 +6,12 @@ import io.github.bardiakz.marketplace_service.service.*;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +20,7 @@ import java.util.Map;
 class ProductController {
 
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+    private static final int MAX_PAGE_SIZE = 100;
     private final ProductService productService;
 
     public ProductController(ProductService productService) {
@@ -46,8 +50,52 @@ class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse(productService.getActiveCatalog(), ifNoneMatch);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<byte[]> getProductPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        return catalogResponse(productService.getActiveCatalogPage(Math.max(page, 0), pageSize), ifNoneMatch);
+    }
+
+    // Clients keep the body and revalidate with If-None-Match; an unchanged page costs a 304 and nothing else
+    private ResponseEntity<byte[]> catalogResponse(CatalogCache.CachedPage page, String ifNoneMatch) {
+        if (page.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(page.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(page.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(page.body());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false, defaultValue = "") List<ProductCategory> category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        try {
+            int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+            return ResponseEntity.ok(productService.searchProducts(
+                    q, minPrice, maxPrice, category, Math.max(page, 0), pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -91,6 +139,7 @@ class ProductController {
 class OrderController {
 
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+    private static final int MAX_PAGE_SIZE = 100;
     private final OrderService orderService;
 
     public OrderController(OrderService orderService) {
@@ -128,6 +177,26 @@ class OrderController {
         return ResponseEntity.ok(orderService.getMyOrders(userId));
     }
 
+    /**
+     * Order history one keyset page at a time (newest first)
+     */
+    @GetMapping("/my-orders/page")
+    public ResponseEntity<?> getMyOrdersPage(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return ResponseEntity.ok(orderService.getMyOrdersPage(userId, cursor, Math.clamp(limit, 1, MAX_PAGE_SIZE)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getOrderById(@PathVariable Long id) {
         try {
@@ -155,4 +224,42 @@ class OrderController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
+
+@RestController
+@RequestMapping("/api/marketplace/analytics")
+class AnalyticsController {
+
+    private static final int MAX_TOP_PRODUCTS = 50;
+    private final SellerAnalyticsService analyticsService;
+
+    public AnalyticsController(SellerAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Sales of the calling seller (FACULTY only); defaults to the last 30 days
+     */
+    @GetMapping("/seller")
+    public ResponseEntity<?> getSellerSales(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int top) {
+
+        if (!"FACULTY".equals(userRole) || userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only FACULTY sellers can view sales analytics"));
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        try {
+            return ResponseEntity.ok(analyticsService.getSalesReport(
+                    userId, start, end, Math.clamp(top, 1, MAX_TOP_PRODUCTS)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
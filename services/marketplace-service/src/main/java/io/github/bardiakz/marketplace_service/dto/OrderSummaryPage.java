@@ -0,0 +1,8 @@
+package io.github.bardiakz.marketplace_service.dto;
+
+import java.util.List;
+
+public record OrderSummaryPage(
+        List<OrderSummaryResponse> items,
+        String nextCursor
+) {}
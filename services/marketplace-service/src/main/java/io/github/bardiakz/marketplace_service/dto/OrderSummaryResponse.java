@@ -0,0 +1,31 @@
+package io.github.bardiakz.marketplace_service.dto;
+
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import io.github.bardiakz.marketplace_service.model.OrderSummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderSummaryResponse(
+        Long orderId,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        Integer itemCount,
+        Integer lineCount,
+        String preview,
+        String paymentId,
+        LocalDateTime createdAt
+) {
+    public static OrderSummaryResponse from(OrderSummary summary) {
+        return new OrderSummaryResponse(
+                summary.getOrderId(),
+                summary.getStatus(),
+                summary.getTotalAmount(),
+                summary.getItemCount(),
+                summary.getLineCount(),
+                summary.getPreview(),
+                summary.getPaymentId(),
+                summary.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.bardiakz.marketplace_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of the active catalog, ordered by product id
+ */
+public record ProductPage(
+        List<ProductResponse> items,
+        int page,
+        int size,
+        long total
+) {}
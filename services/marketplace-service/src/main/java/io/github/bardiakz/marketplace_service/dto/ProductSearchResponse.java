@@ -0,0 +1,18 @@
+package io.github.bardiakz.marketplace_service.dto;
+
+import io.github.bardiakz.marketplace_service.model.ProductCategory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search hits plus per-category counts for the same query.
+ * Category counts ignore the category filter so the storefront can show every facet.
+ */
+public record ProductSearchResponse(
+        List<ProductResponse> items,
+        Map<ProductCategory, Long> categoryCounts,
+        long total,
+        int page,
+        int size
+) {}
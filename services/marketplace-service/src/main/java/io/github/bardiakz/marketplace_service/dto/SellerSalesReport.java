@@ -0,0 +1,22 @@
+package io.github.bardiakz.marketplace_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Seller dashboard for a date range, built from the seller_sales_daily aggregates
+ */
+public record SellerSalesReport(
+        String sellerId,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal revenue,
+        long units,
+        List<DailySales> daily,
+        List<ProductSales> topProducts
+) {
+    public record DailySales(LocalDate date, BigDecimal revenue, long units) {}
+
+    public record ProductSales(Long productId, String productName, BigDecimal revenue, long units, long orders) {}
+}
@@ -3,6 +3,7 @@ package io.github.bardiakz.marketplace_service.event;
 import io.github.bardiakz.marketplace_service.service.OrderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
@@ -22,34 +23,16 @@ public class OrderEventHandler {
     /**
      * Listen to PaymentCompleted events from Payment Service
      * Saga Step 2 (T2)
+     * Failures propagate to the listener retry, then dead-letter; OrderService skips anything already applied.
      */
     @RabbitListener(queues = "marketplace.payment.completed.queue")
     public void handlePaymentCompleted(Map<String, Object> event) {
-        try {
-            log.info("Received PaymentCompleted event: {}", event);
+        log.info("Received PaymentCompleted event: {}", event);
 
-            // Extract orderId - handle both Integer and Long
-            Long orderId;
-            Object orderIdObj = event.get("orderId");
-            if (orderIdObj instanceof Integer) {
-                orderId = ((Integer) orderIdObj).longValue();
-            } else if (orderIdObj instanceof Long) {
-                orderId = (Long) orderIdObj;
-            } else if (orderIdObj instanceof Number) {
-                orderId = ((Number) orderIdObj).longValue();
-            } else {
-                throw new IllegalArgumentException("Invalid orderId type: " + orderIdObj.getClass());
-            }
+        Long orderId = orderId(event);
+        String paymentId = paymentId(event);
 
-            // Extract paymentId - handle potential null or different types
-            String paymentId = String.valueOf(event.get("paymentId"));
-
-            orderService.handlePaymentCompleted(orderId, paymentId);
-
-        } catch (Exception e) {
-            log.error("Error handling PaymentCompleted event", e);
-            // In production, send to DLQ (Dead Letter Queue)
-        }
+        orderService.handlePaymentCompleted(orderId, paymentId);
     }
 
     /**
@@ -58,29 +41,28 @@ public class OrderEventHandler {
      */
     @RabbitListener(queues = "marketplace.payment.failed.queue")
     public void handlePaymentFailed(Map<String, Object> event) {
-        try {
-            log.info("Received PaymentFailed event: {}", event);
+        log.info("Received PaymentFailed event: {}", event);
 
-            // Extract orderId - handle both Integer and Long
-            Long orderId;
-            Object orderIdObj = event.get("orderId");
-            if (orderIdObj instanceof Integer) {
-                orderId = ((Integer) orderIdObj).longValue();
-            } else if (orderIdObj instanceof Long) {
-                orderId = (Long) orderIdObj;
-            } else if (orderIdObj instanceof Number) {
-                orderId = ((Number) orderIdObj).longValue();
-            } else {
-                throw new IllegalArgumentException("Invalid orderId type: " + orderIdObj.getClass());
-            }
+        Long orderId = orderId(event);
+        String paymentId = paymentId(event);
+        String reason = String.valueOf(event.getOrDefault("reason", "Payment failed"));
 
-            String reason = (String) event.getOrDefault("reason", "Payment failed");
+        orderService.handlePaymentFailed(orderId, paymentId, reason);
+    }
 
-            orderService.handlePaymentFailed(orderId, reason);
+    // Malformed events can never succeed, so they are rejected instead of requeued
+    private Long orderId(Map<String, Object> event) {
+        if (event.get("orderId") instanceof Number id) {
+            return id.longValue();
+        }
+        throw new AmqpRejectAndDontRequeueException("Invalid orderId in event: " + event.get("orderId"));
+    }
 
-        } catch (Exception e) {
-            log.error("Error handling PaymentFailed event", e);
-            // In production, send to DLQ
+    private String paymentId(Map<String, Object> event) {
+        Object paymentId = event.get("paymentId");
+        if (paymentId == null) {
+            throw new AmqpRejectAndDontRequeueException("Missing paymentId in event for order " + event.get("orderId"));
         }
+        return String.valueOf(paymentId);
     }
-}
\ No newline at end of file
+}
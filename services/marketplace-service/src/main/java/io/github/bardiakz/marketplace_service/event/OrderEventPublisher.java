@@ -46,6 +46,23 @@ public class OrderEventPublisher {
         }
     }
 
+    /**
+     * Publish RefundRequested for a payment that completed after its order left the saga
+     * (expired, cancelled or failed). Payment Service refunds it.
+     * Failures propagate so the PaymentCompleted event is redelivered.
+     */
+    public void publishRefundRequested(Long orderId, String paymentId, String reason) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", "RefundRequested");
+        event.put("orderId", orderId);
+        event.put("paymentId", paymentId);
+        event.put("reason", reason);
+        event.put("timestamp", System.currentTimeMillis());
+
+        rabbitTemplate.convertAndSend(EXCHANGE_NAME, "order.refund.requested", event);
+        log.info("Published RefundRequested event for order ID: {}", orderId);
+    }
+
     private List<Map<String, Object>> serializeItems(List<OrderItem> items) {
         return items.stream().map(item -> {
             Map<String, Object> itemMap = new HashMap<>();
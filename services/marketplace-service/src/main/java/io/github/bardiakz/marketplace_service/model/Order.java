@@ -7,7 +7,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_deferred_stock", columnList = "deferred_stock, stock_applied")
+})
 public class Order {
 
     @Id
@@ -40,6 +42,14 @@ public class Order {
     @Column(name = "compensation_needed")
     private Boolean compensationNeeded = false;
 
+    // Hot-product stock is reserved in memory and written to products by the reconciler.
+    // stock_applied is only ever written by the reconciler, never by entity updates.
+    @Column(name = "deferred_stock")
+    private Boolean deferredStock = false;
+
+    @Column(name = "stock_applied", updatable = false)
+    private Boolean stockApplied = false;
+
     // Constructors
     public Order() {}
 
@@ -61,24 +71,31 @@ public class Order {
 
     // Saga state transitions
     public void markAsPaymentPending() {
-        this.status = OrderStatus.PAYMENT_PENDING;
+        transitionTo(OrderStatus.PAYMENT_PENDING);
     }
 
     public void markAsCompleted(String paymentId) {
-        this.status = OrderStatus.COMPLETED;
+        transitionTo(OrderStatus.COMPLETED);
         this.paymentId = paymentId;
     }
 
     public void markAsFailed(String reason) {
-        this.status = OrderStatus.FAILED;
+        transitionTo(OrderStatus.FAILED);
         this.compensationNeeded = true;
     }
 
     public void markAsCancelled() {
-        this.status = OrderStatus.CANCELLED;
+        transitionTo(OrderStatus.CANCELLED);
         this.compensationNeeded = true;
     }
 
+    private void transitionTo(OrderStatus target) {
+        if (!status.canTransitionTo(target)) {
+            throw new IllegalStateException("Cannot move order " + id + " from " + status + " to " + target);
+        }
+        this.status = target;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -152,6 +169,22 @@ public class Order {
         this.compensationNeeded = compensationNeeded;
     }
 
+    public Boolean getDeferredStock() {
+        return deferredStock;
+    }
+
+    public void setDeferredStock(Boolean deferredStock) {
+        this.deferredStock = deferredStock;
+    }
+
+    public Boolean getStockApplied() {
+        return stockApplied;
+    }
+
+    public void setStockApplied(Boolean stockApplied) {
+        this.stockApplied = stockApplied;
+    }
+
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -30,6 +30,10 @@ public class OrderItem {
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalPrice;
 
+    // Stock for this item was reserved in memory (hot product) rather than in the products table
+    @Column(name = "deferred_stock")
+    private Boolean deferredStock = false;
+
     // Constructors
     public OrderItem() {}
 
@@ -97,4 +101,12 @@ public class OrderItem {
     public void setTotalPrice(BigDecimal totalPrice) {
         this.totalPrice = totalPrice;
     }
+
+    public Boolean getDeferredStock() {
+        return deferredStock;
+    }
+
+    public void setDeferredStock(Boolean deferredStock) {
+        this.deferredStock = deferredStock;
+    }
 }
\ No newline at end of file
@@ -1,9 +1,29 @@
 package io.github.bardiakz.marketplace_service.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Order saga states. COMPLETED, FAILED, CANCELLED and EXPIRED are terminal, so a
+ * replayed or late saga event can never move an order (and its stock) a second time.
+ */
 public enum OrderStatus {
     PENDING,
     PAYMENT_PENDING,
     COMPLETED,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    EXPIRED; // payment never arrived within marketplace.order-expiry.ttl
+
+    public Set<OrderStatus> next() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(PAYMENT_PENDING, FAILED, CANCELLED, EXPIRED);
+            case PAYMENT_PENDING -> EnumSet.of(COMPLETED, FAILED, CANCELLED, EXPIRED);
+            case COMPLETED, FAILED, CANCELLED, EXPIRED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return next().contains(target);
+    }
 }
@@ -0,0 +1,90 @@
+package io.github.bardiakz.marketplace_service.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model for order history: one row per order, no item join needed.
+ * Written by OrderSummaryWriter whenever an order is created or changes status.
+ */
+@Entity
+@Table(name = "order_summaries", indexes = {
+        @Index(name = "idx_summary_user_created", columnList = "user_id, created_at, order_id")
+})
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OrderStatus status;
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount;
+
+    @Column(length = 255)
+    private String preview; // first product names, comma separated
+
+    @Column(name = "payment_id")
+    private String paymentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public OrderSummary() {}
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public Integer getLineCount() {
+        return lineCount;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.bardiakz.marketplace_service.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Saga events already applied to an order. The unique (order_id, event_key) index
+ * is what makes redelivered or duplicated payment events a no-op.
+ */
+@Entity
+@Table(name = "processed_saga_events", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_saga_event", columnNames = {"order_id", "event_key"})
+})
+public class ProcessedSagaEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "event_key", nullable = false, length = 100)
+    private String eventKey;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt = LocalDateTime.now();
+
+    public ProcessedSagaEvent() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getEventKey() {
+        return eventKey;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
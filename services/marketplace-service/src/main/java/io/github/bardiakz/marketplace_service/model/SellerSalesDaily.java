@@ -0,0 +1,77 @@
+package io.github.bardiakz.marketplace_service.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales per seller, product and day, bumped when an order completes.
+ * Analytics read these rows instead of grouping the order history.
+ */
+@Entity
+@Table(name = "seller_sales_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_seller_product_day", columnNames = {"seller_id", "product_id", "sales_date"})
+}, indexes = {
+        @Index(name = "idx_seller_sales_date", columnList = "seller_id, sales_date")
+})
+public class SellerSalesDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private String sellerId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    public SellerSalesDaily() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSellerId() {
+        return sellerId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads and settles orders whose hot-product stock was reserved in memory.
+ * An order is unsettled while stock_applied does not match its status: an active
+ * order still has to be taken out of products.stock, a failed or cancelled one
+ * whose reservation was already written has to be given back.
+ */
+@Repository
+public class DeferredStockJournal {
+
+    private static final String ACTIVE_STATUSES = "('" + OrderStatus.PENDING + "', '" +
+            OrderStatus.PAYMENT_PENDING + "', '" + OrderStatus.COMPLETED + "')";
+
+    // Orders are locked (skipping ones held by a running saga step) so their status cannot change underneath us
+    private static final String LOCK_UNSETTLED_SQL =
+            "SELECT o.id, o.status, i.product_id, i.quantity FROM orders o " +
+                    "JOIN order_items i ON i.order_id = o.id AND i.deferred_stock = true " +
+                    "WHERE o.id IN (SELECT id FROM orders WHERE deferred_stock = true " +
+                    "AND stock_applied <> (status IN " + ACTIVE_STATUSES + ") " +
+                    "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String MARK_APPLIED_SQL = "UPDATE orders SET stock_applied = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeferredStockJournal(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lock up to {@code limit} unsettled orders and return their deferred items; must run in a transaction
+     */
+    public List<DeferredStockEntry> lockUnsettled(int limit) {
+        return jdbcTemplate.query(LOCK_UNSETTLED_SQL, (rs, rowNum) -> new DeferredStockEntry(
+                rs.getLong("id"),
+                OrderStatus.valueOf(rs.getString("status")),
+                rs.getLong("product_id"),
+                rs.getInt("quantity")
+        ), limit);
+    }
+
+    /**
+     * Record for each order whether products.stock now includes its reservation
+     */
+    public void markApplied(Map<Long, Boolean> appliedByOrder) {
+        if (appliedByOrder.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Boolean>> entries = new ArrayList<>(new TreeMap<>(appliedByOrder).entrySet());
+        jdbcTemplate.batchUpdate(MARK_APPLIED_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setBoolean(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+    }
+
+    public record DeferredStockEntry(Long orderId, OrderStatus status, Long productId, int quantity) {
+
+        public boolean active() {
+            return status == OrderStatus.PENDING
+                    || status == OrderStatus.PAYMENT_PENDING
+                    || status == OrderStatus.COMPLETED;
+        }
+    }
+}
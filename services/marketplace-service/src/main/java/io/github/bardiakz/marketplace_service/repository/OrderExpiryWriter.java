@@ -0,0 +1,58 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based statements for expiring orders whose payment never arrived
+ */
+@Repository
+public class OrderExpiryWriter {
+
+    private static final String EXPIRE_SQL =
+            "UPDATE orders SET status = '" + OrderStatus.EXPIRED + "', compensation_needed = true, updated_at = ? " +
+                    "WHERE id IN (SELECT id FROM orders WHERE status = '" + OrderStatus.PAYMENT_PENDING + "' " +
+                    "AND created_at < ? ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING id";
+
+    private static final String SUM_ITEMS_SQL =
+            "SELECT product_id, deferred_stock, sum(quantity) AS units FROM order_items " +
+                    "WHERE order_id = ANY(?) GROUP BY product_id, deferred_stock";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderExpiryWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Move up to batchSize PAYMENT_PENDING orders created before the cutoff to EXPIRED
+     * @return ids of the orders expired
+     */
+    public List<Long> expirePaymentPending(LocalDateTime createdBefore, int batchSize) {
+        return jdbcTemplate.queryForList(EXPIRE_SQL, Long.class,
+                Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(createdBefore), batchSize);
+    }
+
+    /**
+     * Units held by the given orders, summed per product and per reservation path
+     */
+    public List<ReclaimedUnits> sumItems(List<Long> orderIds) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SUM_ITEMS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", orderIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new ReclaimedUnits(
+                rs.getLong("product_id"),
+                rs.getBoolean("deferred_stock"),
+                rs.getInt("units")
+        ));
+    }
+
+    public record ReclaimedUnits(Long productId, boolean deferred, int units) {}
+}
@@ -2,14 +2,27 @@ package io.github.bardiakz.marketplace_service.repository;
 
 import io.github.bardiakz.marketplace_service.model.Order;
 import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    // Items are fetched in the same query; OrderResponse.from walks them for every order
+    @EntityGraph(attributePaths = "items")
     List<Order> findByUserId(String userId);
     List<Order> findByStatus(OrderStatus status);
     List<Order> findByUserIdAndStatus(String userId, OrderStatus status);
+
+    // Saga steps lock the order so concurrent events for it are applied one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,26 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import io.github.bardiakz.marketplace_service.model.OrderSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    // Keyset page over (createdAt, orderId), newest first; served by idx_summary_user_created
+    @Query("SELECT s FROM OrderSummary s WHERE s.userId = :userId " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.orderId < :orderId)) " +
+            "ORDER BY s.createdAt DESC, s.orderId DESC")
+    List<OrderSummary> findPageByUserId(
+            @Param("userId") String userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("orderId") Long orderId,
+            Limit limit
+    );
+}
@@ -0,0 +1,106 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import io.github.bardiakz.marketplace_service.model.Order;
+import io.github.bardiakz.marketplace_service.model.OrderItem;
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps order_summaries in step with orders. Callers run these inside the
+ * transaction that changes the order, so the read model never drifts.
+ */
+@Repository
+public class OrderSummaryWriter {
+
+    private static final int PREVIEW_LENGTH = 255;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_summaries (order_id, user_id, status, total_amount, item_count, line_count, " +
+                    "preview, payment_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE order_summaries SET status = ?, payment_id = coalesce(?, payment_id), updated_at = ? " +
+                    "WHERE order_id = ANY(?)";
+
+    // Summaries for orders placed before the read model existed, and corrections for any that drifted
+    private static final String BACKFILL_SQL =
+            "INSERT INTO order_summaries (order_id, user_id, status, total_amount, item_count, line_count, " +
+                    "preview, payment_id, created_at, updated_at) " +
+                    "SELECT o.id, o.user_id, o.status, o.total_amount, coalesce(sum(i.quantity), 0), count(i.id), " +
+                    "left(string_agg(i.product_name, ', ' ORDER BY i.id), " + PREVIEW_LENGTH + "), " +
+                    "o.payment_id, o.created_at, o.updated_at " +
+                    "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id " +
+                    "GROUP BY o.id " +
+                    "ON CONFLICT (order_id) DO UPDATE SET status = EXCLUDED.status, " +
+                    "payment_id = EXCLUDED.payment_id, updated_at = EXCLUDED.updated_at " +
+                    "WHERE order_summaries.status IS DISTINCT FROM EXCLUDED.status " +
+                    "OR order_summaries.payment_id IS DISTINCT FROM EXCLUDED.payment_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderSummaryWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(Order order) {
+        String preview = order.getItems().stream()
+                .map(OrderItem::getProductName)
+                .collect(Collectors.joining(", "));
+        if (preview.length() > PREVIEW_LENGTH) {
+            preview = preview.substring(0, PREVIEW_LENGTH);
+        }
+        int units = order.getItems().stream().mapToInt(OrderItem::getQuantity).sum();
+
+        jdbcTemplate.update(INSERT_SQL,
+                order.getId(),
+                order.getUserId(),
+                order.getStatus().name(),
+                order.getTotalAmount(),
+                units,
+                order.getItems().size(),
+                preview,
+                order.getPaymentId(),
+                Timestamp.valueOf(order.getCreatedAt()),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Set the status of every given order; paymentId is only written when not null
+     */
+    public void updateStatus(Collection<Long> orderIds, OrderStatus status, String paymentId) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPDATE_STATUS_SQL);
+            ps.setString(1, status.name());
+            ps.setString(2, paymentId);
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(4, con.createArrayOf("bigint", orderIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Create missing summaries and copy status and paymentId onto any that differ
+     * from their order. A pass can read an order just before a saga step commits
+     * and write back the older status, so passes repeat until one changes nothing.
+     *
+     * @return number of summaries created or corrected
+     */
+    public int backfill() {
+        int total = 0;
+        int changed;
+        while ((changed = jdbcTemplate.update(BACKFILL_SQL)) > 0) {
+            total += changed;
+        }
+        return total;
+    }
+}
@@ -1,7 +1,12 @@
 package io.github.bardiakz.marketplace_service.repository;
 
 import io.github.bardiakz.marketplace_service.model.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,8 +15,15 @@ import java.util.List;
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(ProductCategory category);
     List<Product> findByActiveTrue();
+    Page<Product> findByActiveTrue(Pageable pageable);
     List<Product> findBySellerId(String sellerId);
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    // Atomic stock reservation: 0 rows updated means inactive or insufficient stock
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.active = true AND p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
 
 @Repository
@@ -0,0 +1,105 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import io.github.bardiakz.marketplace_service.dto.ProductResponse;
+import io.github.bardiakz.marketplace_service.model.ProductCategory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog search over the search_vector GIN index (see ProductSearchIndexInstaller).
+ * Text is parsed with websearch_to_tsquery, so quotes, OR and -exclusions work as users expect.
+ */
+@Repository
+public class ProductSearchRepository {
+
+    private static final String COLUMNS =
+            "p.id, p.name, p.description, p.price, p.stock, p.category, p.seller_id, p.active, p.created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Active products matching every given filter, best text match first (newest first without text)
+     */
+    public List<ProductResponse> search(String text, BigDecimal minPrice, BigDecimal maxPrice,
+                                        Collection<ProductCategory> categories, long offset, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM products p");
+        appendFilters(sql, params, text, minPrice, maxPrice, categories);
+        if (hasText(text)) {
+            sql.append(" ORDER BY ts_rank(p.search_vector, websearch_to_tsquery('english', ?)) DESC, p.id ASC");
+            params.add(text);
+        } else {
+            sql.append(" ORDER BY p.created_at DESC, p.id DESC");
+        }
+        sql.append(" LIMIT ? OFFSET ?");
+        params.add(limit);
+        params.add(offset);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new ProductResponse(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBigDecimal("price"),
+                rs.getInt("stock"),
+                ProductCategory.valueOf(rs.getString("category")),
+                rs.getString("seller_id"),
+                rs.getBoolean("active"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        ), params.toArray());
+    }
+
+    /**
+     * Number of matches per category for the text and price filters (category filter deliberately not applied)
+     */
+    public Map<ProductCategory, Long> countByCategory(String text, BigDecimal minPrice, BigDecimal maxPrice) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT p.category, count(*) AS hits FROM products p");
+        appendFilters(sql, params, text, minPrice, maxPrice, List.of());
+        sql.append(" GROUP BY p.category");
+
+        Map<ProductCategory, Long> counts = new EnumMap<>(ProductCategory.class);
+        jdbcTemplate.query(sql.toString(), rs -> {
+            counts.put(ProductCategory.valueOf(rs.getString("category")), rs.getLong("hits"));
+        }, params.toArray());
+        return counts;
+    }
+
+    private void appendFilters(StringBuilder sql, List<Object> params, String text,
+                               BigDecimal minPrice, BigDecimal maxPrice, Collection<ProductCategory> categories) {
+        sql.append(" WHERE p.active = true");
+        if (hasText(text)) {
+            sql.append(" AND p.search_vector @@ websearch_to_tsquery('english', ?)");
+            params.add(text);
+        }
+        if (minPrice != null) {
+            sql.append(" AND p.price >= ?");
+            params.add(minPrice);
+        }
+        if (maxPrice != null) {
+            sql.append(" AND p.price <= ?");
+            params.add(maxPrice);
+        }
+        if (!categories.isEmpty()) {
+            sql.append(" AND p.category IN (");
+            sql.append(String.join(", ", Collections.nCopies(categories.size(), "?")));
+            sql.append(")");
+            categories.forEach(category -> params.add(category.name()));
+        }
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.isBlank();
+    }
+}
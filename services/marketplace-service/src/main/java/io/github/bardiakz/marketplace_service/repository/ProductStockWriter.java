@@ -0,0 +1,108 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies stock changes for a whole cart as one JDBC batch.
+ * Rows are always touched in product-id order so concurrent batches cannot deadlock.
+ */
+@Repository
+public class ProductStockWriter {
+
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock = stock - ?, updated_at = ? " +
+                    "WHERE id = ? AND active = true AND stock >= ?";
+
+    private static final String ADJUST_SQL =
+            "UPDATE products SET stock = stock + ?, updated_at = ? WHERE id = ?";
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, stock FROM products WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Conditionally decrement stock for every product in the map
+     * @return ids of products that could not be reserved (inactive or insufficient stock)
+     */
+    public List<Long> reserve(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] counts = jdbcTemplate.batchUpdate(RESERVE_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+            ps.setInt(4, entry.getValue());
+        });
+
+        List<Long> failed = new ArrayList<>();
+        int[] updated = counts.length > 0 ? counts[0] : new int[0];
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                failed.add(entries.get(i).getKey());
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Give stock back for every product in the map (saga compensation / cancellation)
+     */
+    public void release(Map<Long, Integer> quantities) {
+        adjust(quantities);
+    }
+
+    /**
+     * Add a signed delta to the stock of every product in the map, without any stock check
+     */
+    public void adjust(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(new TreeMap<>(deltas).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(ADJUST_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+        });
+    }
+
+    /**
+     * Lock the rows of the given products and read their stock; must run in a transaction
+     */
+    public Map<Long, Integer> lockStock(Collection<Long> productIds) {
+        Map<Long, Integer> stock = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stock;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_STOCK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", productIds.toArray()));
+            return ps;
+        }, rs -> {
+            stock.put(rs.getLong("id"), rs.getInt("stock"));
+        });
+        return stock;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency log for saga events, backed by the processed_saga_events unique index
+ */
+@Repository
+public class SagaEventLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO processed_saga_events (order_id, event_key, processed_at) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (order_id, event_key) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SagaEventLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record the event inside the caller's transaction
+     * @return false if it was already processed (a concurrent duplicate waits for the first to commit)
+     */
+    public boolean markProcessed(Long orderId, String eventKey) {
+        return jdbcTemplate.update(INSERT_SQL, orderId, eventKey, Timestamp.valueOf(LocalDateTime.now())) > 0;
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.bardiakz.marketplace_service.repository;
+
+import io.github.bardiakz.marketplace_service.dto.SellerSalesReport.DailySales;
+import io.github.bardiakz.marketplace_service.dto.SellerSalesReport.ProductSales;
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Incremental upkeep and reads of the seller_sales_daily aggregates
+ */
+@Repository
+public class SellerSalesRepository {
+
+    private static final String UPSERT_COLUMNS =
+            "INSERT INTO seller_sales_daily (seller_id, product_id, sales_date, product_name, units, revenue, order_count) ";
+
+    private static final String ON_CONFLICT =
+            " ON CONFLICT (seller_id, product_id, sales_date) DO UPDATE SET " +
+                    "units = seller_sales_daily.units + EXCLUDED.units, " +
+                    "revenue = seller_sales_daily.revenue + EXCLUDED.revenue, " +
+                    "order_count = seller_sales_daily.order_count + EXCLUDED.order_count, " +
+                    "product_name = EXCLUDED.product_name";
+
+    // One statement per completed order: its items grouped by seller and product
+    private static final String RECORD_ORDER_SQL = UPSERT_COLUMNS +
+            "SELECT p.seller_id, i.product_id, ?, max(i.product_name), sum(i.quantity), sum(i.total_price), 1 " +
+            "FROM order_items i JOIN products p ON p.id = i.product_id WHERE i.order_id = ? " +
+            "GROUP BY p.seller_id, i.product_id" + ON_CONFLICT;
+
+    // Single-row marker: when incremental upkeep started, and when the backfill before it ran
+    private static final String CREATE_MARKER_SQL =
+            "CREATE TABLE IF NOT EXISTS seller_sales_backfill (id int PRIMARY KEY, " +
+                    "live_since timestamp NOT NULL, backfilled_at timestamp)";
+
+    // Aggregates that already exist were built by an earlier version, which backfilled on its own
+    private static final String INSERT_MARKER_SQL =
+            "INSERT INTO seller_sales_backfill (id, live_since, backfilled_at) " +
+                    "SELECT 1, ?, CASE WHEN EXISTS (SELECT 1 FROM seller_sales_daily) THEN ? END " +
+                    "ON CONFLICT (id) DO NOTHING";
+
+    // Orders completed before upkeep started, exactly once: claiming the marker and inserting is one statement
+    private static final String BACKFILL_SQL =
+            "WITH marker AS (UPDATE seller_sales_backfill SET backfilled_at = ? " +
+                    "WHERE id = 1 AND backfilled_at IS NULL RETURNING live_since) " +
+            UPSERT_COLUMNS +
+            "SELECT p.seller_id, i.product_id, CAST(coalesce(o.updated_at, o.created_at) AS date), " +
+            "max(i.product_name), sum(i.quantity), sum(i.total_price), count(DISTINCT o.id) " +
+            "FROM marker m, orders o JOIN order_items i ON i.order_id = o.id JOIN products p ON p.id = i.product_id " +
+            "WHERE o.status = '" + OrderStatus.COMPLETED + "' " +
+            "AND coalesce(o.updated_at, o.created_at) < m.live_since " +
+            "GROUP BY p.seller_id, i.product_id, CAST(coalesce(o.updated_at, o.created_at) AS date)" + ON_CONFLICT;
+
+    private static final String DAILY_SQL =
+            "SELECT sales_date, sum(revenue) AS revenue, sum(units) AS units FROM seller_sales_daily " +
+                    "WHERE seller_id = ? AND sales_date BETWEEN ? AND ? GROUP BY sales_date ORDER BY sales_date";
+
+    private static final String TOP_PRODUCTS_SQL =
+            "SELECT product_id, max(product_name) AS product_name, sum(revenue) AS revenue, sum(units) AS units, " +
+                    "sum(order_count) AS orders FROM seller_sales_daily " +
+                    "WHERE seller_id = ? AND sales_date BETWEEN ? AND ? " +
+                    "GROUP BY product_id ORDER BY revenue DESC, product_id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SellerSalesRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add a completed order to the aggregates; runs in the transaction that completes it
+     */
+    public void recordCompletedOrder(Long orderId, LocalDate salesDate) {
+        jdbcTemplate.update(RECORD_ORDER_SQL, Date.valueOf(salesDate), orderId);
+    }
+
+    /**
+     * Record when incremental upkeep started; only the first call ever has an effect.
+     * Must run before the first recordCompletedOrder.
+     */
+    public void markUpkeepStarted() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.execute(CREATE_MARKER_SQL);
+        jdbcTemplate.update(INSERT_MARKER_SQL, now, now);
+    }
+
+    /**
+     * Aggregate the orders completed before upkeep started, unless that was done already
+     * @return number of aggregate rows created
+     */
+    public int backfillBeforeUpkeep() {
+        return jdbcTemplate.update(BACKFILL_SQL, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public List<DailySales> findDaily(String sellerId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(DAILY_SQL, (rs, rowNum) -> new DailySales(
+                rs.getDate("sales_date").toLocalDate(),
+                rs.getBigDecimal("revenue"),
+                rs.getLong("units")
+        ), sellerId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<ProductSales> findTopProducts(String sellerId, LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(TOP_PRODUCTS_SQL, (rs, rowNum) -> new ProductSales(
+                rs.getLong("product_id"),
+                rs.getString("product_name"),
+                rs.getBigDecimal("revenue"),
+                rs.getLong("units"),
+                rs.getLong("orders")
+        ), sellerId, Date.valueOf(from), Date.valueOf(to), limit);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized catalog pages with a content-derived ETag.
+ * Every product or stock change bumps the catalog version; a cached page is only
+ * served while its version is current, so a page built concurrently with a change
+ * can never outlive it.
+ */
+@Component
+public class CatalogCache {
+
+    private final Cache<String, CachedPage> pages;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong version = new AtomicLong();
+
+    public CatalogCache(ObjectMapper objectMapper,
+                        @Value("${marketplace.catalog-cache.max-pages:1000}") long maxPages) {
+        this.objectMapper = objectMapper;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .build();
+    }
+
+    /**
+     * Cached page for the key, or the loader's result serialized and cached under the current version
+     */
+    public CachedPage get(String key, Supplier<?> loader) {
+        long current = version.get();
+        CachedPage cached = pages.getIfPresent(key);
+        if (cached != null && cached.version() == current) {
+            return cached;
+        }
+        byte[] body = objectMapper.writeValueAsBytes(loader.get());
+        CachedPage page = new CachedPage(current, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        pages.put(key, page);
+        return page;
+    }
+
+    /**
+     * Drop every cached page once the current transaction commits
+     */
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAll();
+            }
+        });
+    }
+
+    private void evictAll() {
+        version.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    public record CachedPage(long version, byte[] body, String etag) {
+
+        /**
+         * True if an If-None-Match header value lists this page's ETag (weak or strong) or "*"
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import io.github.bardiakz.marketplace_service.repository.DeferredStockJournal;
+import io.github.bardiakz.marketplace_service.repository.DeferredStockJournal.DeferredStockEntry;
+import io.github.bardiakz.marketplace_service.repository.ProductStockWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind for hot-product reservations. The orders table is the journal:
+ * each batch sums the deferred items of unsettled orders into one stock delta per
+ * product, applies it and flips stock_applied in the same transaction, so a crash
+ * at any point leaves the journal and products.stock consistent.
+ */
+@Component
+public class HotStockReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockReconciler.class);
+
+    private final DeferredStockJournal journal;
+    private final ProductStockWriter stockWriter;
+    private final CatalogCache catalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // Held while settling, so HotStockReservations can load its counters with no settlement in flight
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public HotStockReconciler(DeferredStockJournal journal,
+                              ProductStockWriter stockWriter,
+                              CatalogCache catalogCache,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${marketplace.hot-stock.reconcile-batch-size:500}") int batchSize) {
+        this.journal = journal;
+        this.stockWriter = stockWriter;
+        this.catalogCache = catalogCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${marketplace.hot-stock.reconcile-interval-ms:500}")
+    public void tick() {
+        try {
+            int settled = reconcile();
+            if (settled > 0) {
+                log.debug("Settled hot-product stock for {} orders", settled);
+            }
+        } catch (Exception e) {
+            log.error("Hot-product stock reconciliation failed", e);
+        }
+    }
+
+    /**
+     * Settle unsettled orders batch by batch until none are left
+     * @return number of orders settled
+     */
+    public int reconcile() {
+        lock.lock();
+        try {
+            int total = 0;
+            int settled;
+            do {
+                settled = transactionTemplate.execute(status -> settleBatch());
+                total += settled;
+            } while (settled == batchSize);
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Settle every unsettled order, then run the action before another settlement can start
+     * @return number of orders settled
+     */
+    public int reconcileThen(Runnable action) {
+        lock.lock();
+        try {
+            int settled = reconcile();
+            action.run();
+            return settled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int settleBatch() {
+        List<DeferredStockEntry> entries = journal.lockUnsettled(batchSize);
+
+        Map<Long, Integer> deltas = new TreeMap<>();
+        Map<Long, Boolean> applied = new HashMap<>();
+        for (DeferredStockEntry entry : entries) {
+            // Active orders take stock out, failed or cancelled ones give back what was written earlier
+            deltas.merge(entry.productId(), entry.active() ? -entry.quantity() : entry.quantity(), Integer::sum);
+            applied.put(entry.orderId(), entry.active());
+        }
+
+        stockWriter.adjust(deltas);
+        journal.markApplied(applied);
+        if (!deltas.isEmpty()) {
+            catalogCache.invalidate();
+        }
+        return applied.size();
+    }
+}
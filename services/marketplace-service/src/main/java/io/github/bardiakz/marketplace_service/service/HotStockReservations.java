@@ -0,0 +1,200 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import io.github.bardiakz.marketplace_service.repository.ProductStockWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory available-stock counters for the configured hot products.
+ * Orders for these products are admitted with a compare-and-set on the counter
+ * instead of a row lock on products; HotStockReconciler writes the reservations
+ * back to products.stock in batches. Counters live in this instance only, so the
+ * hot path assumes a single marketplace-service instance.
+ * <p>
+ * Stock written straight to products (orders placed before the counters were ready,
+ * restocks, manual decreases) is mirrored with {@link #reserveWritten} and
+ * {@link #releaseWritten}, called after the row is updated.
+ */
+@Component
+public class HotStockReservations {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockReservations.class);
+
+    private final Set<Long> hotProductIds;
+    private final ProductStockWriter stockWriter;
+    private final HotStockReconciler reconciler;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, AtomicLong> available = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    public HotStockReservations(@Value("${marketplace.hot-stock.product-ids:}") List<Long> hotProductIds,
+                                ProductStockWriter stockWriter,
+                                HotStockReconciler reconciler,
+                                PlatformTransactionManager transactionManager) {
+        this.hotProductIds = Set.copyOf(hotProductIds);
+        this.stockWriter = stockWriter;
+        this.reconciler = reconciler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Settle whatever the previous run left unwritten, then load the counters from products.stock
+     * before the reconciler can write to it again
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int settled = reconciler.reconcileThen(this::loadCounters);
+        if (settled > 0) {
+            log.info("Recovered {} orders with unwritten hot-product stock", settled);
+        }
+        if (ready) {
+            log.info("Hot-product stock counters loaded for {} products", available.size());
+        }
+    }
+
+    // The row locks wait for table-path writes in flight and hold back new ones until ready is set,
+    // so every write is either in the loaded stock or finds the product hot afterwards
+    private void loadCounters() {
+        if (hotProductIds.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            stockWriter.lockStock(hotProductIds)
+                    .forEach((productId, stock) -> available.put(productId, new AtomicLong(stock)));
+            ready = true;
+        });
+    }
+
+    /**
+     * True if orders for this product should reserve through the in-memory counter
+     */
+    public boolean isHot(Long productId) {
+        return ready && available.containsKey(productId);
+    }
+
+    /**
+     * Reserve every quantity or none of them
+     * @return ids of products without enough available stock
+     */
+    public List<Long> tryReserve(Map<Long, Integer> quantities) {
+        List<Long> failed = new ArrayList<>();
+        Map<Long, Integer> taken = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (take(entry.getKey(), entry.getValue())) {
+                taken.put(entry.getKey(), entry.getValue());
+            } else {
+                failed.add(entry.getKey());
+            }
+        }
+        if (!failed.isEmpty()) {
+            give(taken);
+            return failed;
+        }
+
+        // The order is not persisted yet; hand the stock back if its transaction rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        give(taken);
+                    }
+                }
+            });
+        }
+        return List.of();
+    }
+
+    /**
+     * Return reserved stock once the cancelling transaction commits
+     */
+    public void release(Map<Long, Integer> quantities) {
+        afterCommit(() -> give(quantities));
+    }
+
+    /**
+     * Take stock already taken from products.stock off the counters of hot products, all or none.
+     * Call after the rows are updated, in the same transaction.
+     * @return ids of hot products without enough available stock
+     */
+    public List<Long> reserveWritten(Map<Long, Integer> quantities) {
+        Map<Long, Integer> hot = hotOnly(quantities);
+        return hot.isEmpty() ? List.of() : tryReserve(hot);
+    }
+
+    /**
+     * Return stock already given back to products.stock to the counters of hot products
+     * once the transaction commits. Call after the rows are updated, in the same transaction.
+     */
+    public void releaseWritten(Map<Long, Integer> quantities) {
+        Map<Long, Integer> hot = hotOnly(quantities);
+        if (!hot.isEmpty()) {
+            release(hot);
+        }
+    }
+
+    private Map<Long, Integer> hotOnly(Map<Long, Integer> quantities) {
+        Map<Long, Integer> hot = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (isHot(productId)) {
+                hot.put(productId, quantity);
+            }
+        });
+        return hot;
+    }
+
+    private boolean take(Long productId, int quantity) {
+        AtomicLong counter = available.get(productId);
+        if (counter == null) {
+            return false;
+        }
+        long current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private void give(Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            AtomicLong counter = available.get(productId);
+            if (counter != null) {
+                counter.addAndGet(quantity);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
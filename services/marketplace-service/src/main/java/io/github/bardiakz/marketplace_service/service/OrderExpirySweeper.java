@@ -0,0 +1,145 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import io.github.bardiakz.marketplace_service.config.OrderStatusConstraintInstaller;
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import io.github.bardiakz.marketplace_service.repository.OrderExpiryWriter;
+import io.github.bardiakz.marketplace_service.repository.OrderExpiryWriter.ReclaimedUnits;
+import io.github.bardiakz.marketplace_service.repository.OrderSummaryWriter;
+import io.github.bardiakz.marketplace_service.repository.ProductStockWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Expires orders that stayed in PAYMENT_PENDING longer than the configured TTL
+ * (payment-service down or the event lost) and gives their stock back.
+ * Each batch expires the orders, sums their items per product and restores stock
+ * with one UPDATE per product, all in one transaction.
+ * Sweeps wait until the orders.status constraint accepts EXPIRED.
+ */
+@Component
+public class OrderExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpirySweeper.class);
+
+    private final OrderExpiryWriter expiryWriter;
+    private final ProductStockWriter stockWriter;
+    private final OrderSummaryWriter summaryWriter;
+    private final HotStockReservations hotStock;
+    private final CatalogCache catalogCache;
+    private final OrderStatusConstraintInstaller constraintInstaller;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int batchSize;
+    private final Counter expiredCounter;
+    private final Counter reclaimedCounter;
+    private final DistributionSummary sweepSummary;
+
+    public OrderExpirySweeper(OrderExpiryWriter expiryWriter,
+                              ProductStockWriter stockWriter,
+                              OrderSummaryWriter summaryWriter,
+                              HotStockReservations hotStock,
+                              CatalogCache catalogCache,
+                              OrderStatusConstraintInstaller constraintInstaller,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${marketplace.order-expiry.ttl:PT15M}") Duration ttl,
+                              @Value("${marketplace.order-expiry.batch-size:500}") int batchSize) {
+        this.expiryWriter = expiryWriter;
+        this.stockWriter = stockWriter;
+        this.summaryWriter = summaryWriter;
+        this.hotStock = hotStock;
+        this.catalogCache = catalogCache;
+        this.constraintInstaller = constraintInstaller;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.expiredCounter = Counter.builder("marketplace.orders.expired")
+                .description("PAYMENT_PENDING orders expired by the sweeper")
+                .register(meterRegistry);
+        this.reclaimedCounter = Counter.builder("marketplace.stock.reclaimed")
+                .description("Stock units returned to sale from expired orders")
+                .register(meterRegistry);
+        this.sweepSummary = DistributionSummary.builder("marketplace.order-expiry.sweep.units")
+                .description("Stock units reclaimed per sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${marketplace.order-expiry.tick-ms:60000}")
+    public void tick() {
+        if (!constraintInstaller.ensureInstalled()) {
+            log.warn("Order expiry sweep skipped: order status constraint not installed yet");
+            return;
+        }
+        try {
+            SweepResult result = sweep(LocalDateTime.now().minus(ttl));
+            expiredCounter.increment(result.orders());
+            reclaimedCounter.increment(result.units());
+            sweepSummary.record(result.units());
+
+            if (result.orders() > 0) {
+                log.info("Order expiry sweep: {} orders expired, {} units reclaimed on {} products",
+                        result.orders(), result.units(), result.unitsByProduct().size());
+            }
+        } catch (Exception e) {
+            log.error("Order expiry sweep failed", e);
+        }
+    }
+
+    /**
+     * Expire every PAYMENT_PENDING order created before the cutoff, batch by batch
+     */
+    public SweepResult sweep(LocalDateTime createdBefore) {
+        Map<Long, Integer> unitsByProduct = new TreeMap<>();
+        int orders = 0;
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> expireBatch(createdBefore, unitsByProduct));
+            orders += expired;
+        } while (expired == batchSize);
+
+        int units = unitsByProduct.values().stream().mapToInt(Integer::intValue).sum();
+        return new SweepResult(orders, units, unitsByProduct);
+    }
+
+    private int expireBatch(LocalDateTime createdBefore, Map<Long, Integer> unitsByProduct) {
+        List<Long> orderIds = expiryWriter.expirePaymentPending(createdBefore, batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        summaryWriter.updateStatus(orderIds, OrderStatus.EXPIRED, null);
+
+        // Deferred (hot-product) units go back to the counters; HotStockReconciler settles products for them
+        Map<Long, Integer> tableUnits = new TreeMap<>();
+        Map<Long, Integer> hotUnits = new TreeMap<>();
+        for (ReclaimedUnits reclaimed : expiryWriter.sumItems(orderIds)) {
+            (reclaimed.deferred() ? hotUnits : tableUnits).merge(reclaimed.productId(), reclaimed.units(), Integer::sum);
+            unitsByProduct.merge(reclaimed.productId(), reclaimed.units(), Integer::sum);
+        }
+
+        stockWriter.release(tableUnits);
+        hotStock.releaseWritten(tableUnits);
+        if (!hotUnits.isEmpty()) {
+            hotStock.release(hotUnits);
+        }
+        if (!tableUnits.isEmpty()) {
+            catalogCache.invalidate();
+        }
+        return orderIds.size();
+    }
+
+    public record SweepResult(int orders, int units, Map<Long, Integer> unitsByProduct) {}
+}
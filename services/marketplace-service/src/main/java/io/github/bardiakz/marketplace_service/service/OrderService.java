@@ -6,11 +6,18 @@ import io.github.bardiakz.marketplace_service.model.*;
 import io.github.bardiakz.marketplace_service.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,15 +25,40 @@ public class OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
 
+    // Terminal states that gave the order's stock back; a payment arriving after them is refunded
+    private static final Set<OrderStatus> STOCK_RELEASED =
+            EnumSet.of(OrderStatus.FAILED, OrderStatus.CANCELLED, OrderStatus.EXPIRED);
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final ProductStockWriter stockWriter;
+    private final HotStockReservations hotStock;
+    private final CatalogCache catalogCache;
+    private final SagaEventLog sagaEventLog;
+    private final OrderSummaryWriter summaryWriter;
+    private final OrderSummaryRepository summaryRepository;
+    private final SellerSalesRepository salesRepository;
     private final OrderEventPublisher eventPublisher;
 
     public OrderService(OrderRepository orderRepository,
                         ProductRepository productRepository,
+                        ProductStockWriter stockWriter,
+                        HotStockReservations hotStock,
+                        CatalogCache catalogCache,
+                        SagaEventLog sagaEventLog,
+                        OrderSummaryWriter summaryWriter,
+                        OrderSummaryRepository summaryRepository,
+                        SellerSalesRepository salesRepository,
                         OrderEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
+        this.stockWriter = stockWriter;
+        this.hotStock = hotStock;
+        this.catalogCache = catalogCache;
+        this.sagaEventLog = sagaEventLog;
+        this.summaryWriter = summaryWriter;
+        this.summaryRepository = summaryRepository;
+        this.salesRepository = salesRepository;
         this.eventPublisher = eventPublisher;
     }
 
@@ -38,29 +70,34 @@ public class OrderService {
     public OrderResponse createOrder(CreateOrderRequest request, String userId) {
         log.info("Creating order for user: {}", userId);
 
+        // Sum quantities per product; the whole cart is loaded and reserved in one go
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItemRequest itemReq : request.items()) {
+            quantities.merge(itemReq.productId(), itemReq.quantity(), Integer::sum);
+        }
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Hot products reserve against the in-memory counters, the rest against the products table
+        Map<Long, Integer> hotQuantities = new TreeMap<>();
+        Map<Long, Integer> tableQuantities = new TreeMap<>();
+        quantities.forEach((productId, quantity) ->
+                (hotStock.isHot(productId) ? hotQuantities : tableQuantities).put(productId, quantity));
+
         // Validate and calculate total
         BigDecimal totalAmount = BigDecimal.ZERO;
         Order order = new Order(userId, totalAmount);
 
         for (OrderItemRequest itemReq : request.items()) {
-            // Get product and check stock
-            Product product = productRepository.findById(itemReq.productId())
-                    .orElseThrow(() -> new ProductNotFoundException(
-                            "Product not found: " + itemReq.productId()));
+            Product product = products.get(itemReq.productId());
+            if (product == null) {
+                throw new ProductNotFoundException("Product not found: " + itemReq.productId());
+            }
 
             if (!product.getActive()) {
                 throw new IllegalStateException("Product is not available");
             }
 
-            if (product.getStock() < itemReq.quantity()) {
-                throw new InsufficientStockException(
-                        "Insufficient stock for product: " + product.getName());
-            }
-
-            // Decrease stock (T1 - Transaction step)
-            product.decreaseStock(itemReq.quantity());
-            productRepository.save(product);
-
             // Create order item
             BigDecimal itemTotal = product.getPrice().multiply(
                     BigDecimal.valueOf(itemReq.quantity()));
@@ -70,14 +107,35 @@ public class OrderService {
                     itemReq.quantity(),
                     product.getPrice()
             );
+            orderItem.setDeferredStock(hotQuantities.containsKey(product.getId()));
             order.addItem(orderItem);
             totalAmount = totalAmount.add(itemTotal);
         }
 
+        // Decrease stock (T1 - Transaction step): one batch of conditional UPDATEs
+        List<Long> unavailable = stockWriter.reserve(tableQuantities);
+        if (unavailable.isEmpty()) {
+            // Products that turned hot while the updates waited for their rows
+            unavailable = hotStock.reserveWritten(tableQuantities);
+        }
+        if (unavailable.isEmpty() && !hotQuantities.isEmpty()) {
+            unavailable = hotStock.tryReserve(hotQuantities);
+            order.setDeferredStock(true);
+        }
+        if (!unavailable.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock for product: " +
+                    unavailable.stream().map(id -> products.get(id).getName()).collect(Collectors.joining(", ")));
+        }
+
+        if (!tableQuantities.isEmpty()) {
+            catalogCache.invalidate();
+        }
+
         order.setTotalAmount(totalAmount);
         order.markAsPaymentPending();
 
         Order savedOrder = orderRepository.save(order);
+        summaryWriter.insert(savedOrder);
 
         // Publish OrderCreated event (start Saga)
         eventPublisher.publishOrderCreated(savedOrder);
@@ -89,48 +147,88 @@ public class OrderService {
     /**
      * Handle PaymentCompleted event from Payment Service
      * Step 2 (T2): Mark order as completed
+     * Replays of the same event are skipped. A payment for an order that already failed,
+     * was cancelled or expired (its stock is back on sale) asks Payment to refund it.
      */
     @Transactional
     public void handlePaymentCompleted(Long orderId, String paymentId) {
         log.info("Handling payment completed for order: {}", orderId);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found"));
+        Order order = lockForSagaEvent(orderId, "PaymentCompleted:" + paymentId);
+        if (order == null) {
+            return;
+        }
+        if (STOCK_RELEASED.contains(order.getStatus())) {
+            // The customer was charged for an order whose stock went back on sale: reverse the charge
+            log.warn("Payment {} completed for order {} in status {} - requesting refund",
+                    paymentId, orderId, order.getStatus());
+            eventPublisher.publishRefundRequested(orderId, paymentId, "Order " + order.getStatus().name().toLowerCase());
+            return;
+        }
+        if (!canTakeStep(order, "PaymentCompleted:" + paymentId, OrderStatus.COMPLETED)) {
+            return;
+        }
 
         order.markAsCompleted(paymentId);
         orderRepository.save(order);
+        summaryWriter.updateStatus(List.of(orderId), OrderStatus.COMPLETED, paymentId);
+        salesRepository.recordCompletedOrder(orderId, LocalDate.now());
 
         log.info("Order {} completed successfully", orderId);
     }
 
     /**
      * Handle PaymentFailed event from Payment Service
-     * Compensation (C1): Restore stock
+     * Compensation (C1): Restore stock, at most once per order
      */
     @Transactional
-    public void handlePaymentFailed(Long orderId, String reason) {
+    public void handlePaymentFailed(Long orderId, String paymentId, String reason) {
         log.warn("Handling payment failed for order: {} - Reason: {}", orderId, reason);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found"));
+        Order order = lockForSagaStep(orderId, "PaymentFailed:" + paymentId, OrderStatus.FAILED);
+        if (order == null) {
+            return;
+        }
 
         // Compensation: Restore stock
-        for (OrderItem item : order.getItems()) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product not found"));
-
-            product.increaseStock(item.getQuantity());
-            productRepository.save(product);
-            log.info("Compensated: Restored {} units of product {}",
-                    item.getQuantity(), product.getName());
-        }
+        releaseStock(order);
+        log.info("Compensated: Restored stock for {} items of order {}", order.getItems().size(), orderId);
 
         order.markAsFailed(reason);
         orderRepository.save(order);
+        summaryWriter.updateStatus(List.of(orderId), OrderStatus.FAILED, null);
 
         log.info("Order {} failed and compensated", orderId);
     }
 
+    // Returns the locked order, or null if the event was already applied or the order cannot take this step
+    private Order lockForSagaStep(Long orderId, String eventKey, OrderStatus target) {
+        Order order = lockForSagaEvent(orderId, eventKey);
+        return order != null && canTakeStep(order, eventKey, target) ? order : null;
+    }
+
+    // Returns the locked order, or null if the event was already applied or the order is unknown
+    private Order lockForSagaEvent(Long orderId, String eventKey) {
+        if (!sagaEventLog.markProcessed(orderId, eventKey)) {
+            log.info("Skipping duplicate saga event {} for order {}", eventKey, orderId);
+            return null;
+        }
+
+        Order order = orderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null) {
+            log.warn("Ignoring saga event {} for unknown order {}", eventKey, orderId);
+        }
+        return order;
+    }
+
+    private boolean canTakeStep(Order order, String eventKey, OrderStatus target) {
+        if (!order.getStatus().canTransitionTo(target)) {
+            log.warn("Ignoring saga event {} for order {} in status {}", eventKey, order.getId(), order.getStatus());
+            return false;
+        }
+        return true;
+    }
+
     public List<OrderResponse> getMyOrders(String userId) {
         log.debug("Fetching orders for user: {}", userId);
         return orderRepository.findByUserId(userId).stream()
@@ -138,6 +236,29 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Order history one keyset page at a time, newest first, from the order_summaries read model
+     */
+    public OrderSummaryPage getMyOrdersPage(String userId, String cursor, int limit) {
+        log.debug("Fetching order summaries page for user: {}", userId);
+        OrderCursor before = OrderCursor.decode(cursor);
+        List<OrderSummary> rows = summaryRepository.findPageByUserId(
+                userId, before.createdAt(), before.orderId(), Limit.of(limit + 1));
+
+        // One extra row is fetched to tell whether another page follows
+        boolean hasMore = rows.size() > limit;
+        List<OrderSummaryResponse> items = rows.stream()
+                .limit(limit)
+                .map(OrderSummaryResponse::from)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummaryResponse last = items.getLast();
+            nextCursor = new OrderCursor(last.createdAt(), last.orderId()).encode();
+        }
+        return new OrderSummaryPage(items, nextCursor);
+    }
+
     public OrderResponse getOrderById(Long id) {
         log.debug("Fetching order with ID: {}", id);
         Order order = orderRepository.findById(id)
@@ -149,30 +270,44 @@ public class OrderService {
     public void cancelOrder(Long id, String userId) {
         log.info("Cancelling order: {}", id);
 
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found"));
 
         if (!order.getUserId().equals(userId)) {
             throw new UnauthorizedException("You can only cancel your own orders");
         }
 
-        if (order.getStatus() == OrderStatus.COMPLETED) {
-            throw new IllegalStateException("Cannot cancel completed order");
+        if (!order.getStatus().canTransitionTo(OrderStatus.CANCELLED)) {
+            throw new IllegalStateException("Cannot cancel order in status " + order.getStatus());
         }
 
         // Restore stock
-        for (OrderItem item : order.getItems()) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product not found"));
-            product.increaseStock(item.getQuantity());
-            productRepository.save(product);
-        }
+        releaseStock(order);
 
         order.markAsCancelled();
         orderRepository.save(order);
+        summaryWriter.updateStatus(List.of(id), OrderStatus.CANCELLED, null);
 
         log.info("Order cancelled successfully");
     }
+
+    // Deferred items go back to the counters; HotStockReconciler writes them to products once the status changes
+    private void releaseStock(Order order) {
+        Map<Long, Integer> hotQuantities = new TreeMap<>();
+        Map<Long, Integer> tableQuantities = new TreeMap<>();
+        for (OrderItem item : order.getItems()) {
+            Map<Long, Integer> target = Boolean.TRUE.equals(item.getDeferredStock()) ? hotQuantities : tableQuantities;
+            target.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        stockWriter.release(tableQuantities);
+        hotStock.releaseWritten(tableQuantities);
+        if (!tableQuantities.isEmpty()) {
+            catalogCache.invalidate();
+        }
+        if (!hotQuantities.isEmpty()) {
+            hotStock.release(hotQuantities);
+        }
+    }
 }
 
 class OrderNotFoundException extends RuntimeException {
@@ -4,12 +4,18 @@ import io.github.bardiakz.marketplace_service.dto.*;
 import io.github.bardiakz.marketplace_service.model.Product;
 import io.github.bardiakz.marketplace_service.model.ProductCategory;
 import io.github.bardiakz.marketplace_service.repository.ProductRepository;
+import io.github.bardiakz.marketplace_service.repository.ProductSearchRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,9 +24,18 @@ public class ProductService {
     private static final Logger log = LoggerFactory.getLogger(ProductService.class);
 
     private final ProductRepository productRepository;
-
-    public ProductService(ProductRepository productRepository) {
+    private final ProductSearchRepository searchRepository;
+    private final HotStockReservations hotStock;
+    private final CatalogCache catalogCache;
+
+    public ProductService(ProductRepository productRepository,
+                          ProductSearchRepository searchRepository,
+                          HotStockReservations hotStock,
+                          CatalogCache catalogCache) {
         this.productRepository = productRepository;
+        this.searchRepository = searchRepository;
+        this.hotStock = hotStock;
+        this.catalogCache = catalogCache;
     }
 
     @Transactional
@@ -37,6 +52,7 @@ public class ProductService {
         );
 
         Product savedProduct = productRepository.save(product);
+        catalogCache.invalidate();
         log.info("Product created with ID: {}", savedProduct.getId());
 
         return ProductResponse.from(savedProduct);
@@ -49,6 +65,25 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * The whole active catalog, serialized once per catalog version
+     */
+    public CatalogCache.CachedPage getActiveCatalog() {
+        return catalogCache.get("all", this::getAllProducts);
+    }
+
+    /**
+     * One page of the active catalog, serialized once per catalog version
+     */
+    public CatalogCache.CachedPage getActiveCatalogPage(int page, int size) {
+        return catalogCache.get("page:" + page + ":" + size, () -> {
+            log.debug("Loading catalog page {} (size {})", page, size);
+            Page<Product> result = productRepository.findByActiveTrue(PageRequest.of(page, size, Sort.by("id")));
+            return new ProductPage(result.map(ProductResponse::from).getContent(),
+                    page, size, result.getTotalElements());
+        });
+    }
+
     public ProductResponse getProductById(Long id) {
         log.debug("Fetching product with ID: {}", id);
         Product product = productRepository.findById(id)
@@ -70,13 +105,46 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Full-text search with price range and category filters; counts per category come from the same query
+     */
+    public ProductSearchResponse searchProducts(String query, BigDecimal minPrice, BigDecimal maxPrice,
+                                                List<ProductCategory> categories, int page, int size) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        log.debug("Searching products: q='{}', price={}..{}, categories={}", query, minPrice, maxPrice, categories);
+
+        Map<ProductCategory, Long> categoryCounts = searchRepository.countByCategory(query, minPrice, maxPrice);
+        long total = categoryCounts.entrySet().stream()
+                .filter(entry -> categories.isEmpty() || categories.contains(entry.getKey()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+
+        List<ProductResponse> items = total == 0 ? List.of()
+                : searchRepository.search(query, minPrice, maxPrice, categories, (long) page * size, size);
+        return new ProductSearchResponse(items, categoryCounts, total, page, size);
+    }
+
     @Transactional
     public void decreaseStock(Long productId, int quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found"));
-
-        product.decreaseStock(quantity);
-        productRepository.save(product);
+        // products.stock of a hot product still includes reservations not written back yet,
+        // so its counter decides; the row then follows (rolling back returns the counter's units)
+        boolean hot = hotStock.isHot(productId);
+        if (hot && !hotStock.tryReserve(Map.of(productId, quantity)).isEmpty()) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+        if (productRepository.reserveStock(productId, quantity) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ProductNotFoundException("Product not found");
+            }
+            throw new IllegalStateException("Insufficient stock");
+        }
+        // The product may have turned hot while the update waited for its row
+        if (!hot && !hotStock.reserveWritten(Map.of(productId, quantity)).isEmpty()) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+        catalogCache.invalidate();
         log.info("Decreased stock for product {}: -{}", productId, quantity);
     }
 
@@ -86,7 +154,10 @@ public class ProductService {
                 .orElseThrow(() -> new ProductNotFoundException("Product not found"));
 
         product.increaseStock(quantity);
-        productRepository.save(product);
+        // Flushed so the row is updated before the counter is checked
+        productRepository.saveAndFlush(product);
+        hotStock.releaseWritten(Map.of(productId, quantity));
+        catalogCache.invalidate();
         log.info("Increased stock for product {}: +{}", productId, quantity);
     }
 
@@ -103,6 +174,7 @@ public class ProductService {
 
         product.setActive(false);
         productRepository.save(product);
+        catalogCache.invalidate();
         log.info("Product marked as inactive");
     }
 }
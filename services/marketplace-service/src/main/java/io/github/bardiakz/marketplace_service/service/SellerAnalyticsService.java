@@ -0,0 +1,76 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import io.github.bardiakz.marketplace_service.dto.SellerSalesReport;
+import io.github.bardiakz.marketplace_service.dto.SellerSalesReport.DailySales;
+import io.github.bardiakz.marketplace_service.dto.SellerSalesReport.ProductSales;
+import io.github.bardiakz.marketplace_service.repository.SellerSalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+public class SellerAnalyticsService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SellerAnalyticsService.class);
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final SellerSalesRepository salesRepository;
+
+    public SellerAnalyticsService(SellerSalesRepository salesRepository) {
+        this.salesRepository = salesRepository;
+    }
+
+    /**
+     * Runs before the Rabbit listeners start, so no order is aggregated by both
+     * the upkeep and the backfill
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        salesRepository.markUpkeepStarted();
+    }
+
+    /**
+     * Seed the aggregates from orders completed before the service kept them up to date.
+     * Upserts that land first do not stop it; a persistent marker makes it run once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int rows = salesRepository.backfillBeforeUpkeep();
+            if (rows > 0) {
+                log.info("Backfilled {} seller sales aggregate rows", rows);
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill seller sales aggregates", e);
+        }
+    }
+
+    /**
+     * Revenue, units, a daily series and the top products of a seller, all from pre-aggregated rows
+     */
+    public SellerSalesReport getSalesReport(String sellerId, LocalDate from, LocalDate to, int topLimit) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        log.debug("Building sales report for seller {} from {} to {}", sellerId, from, to);
+
+        List<DailySales> daily = salesRepository.findDaily(sellerId, from, to);
+        List<ProductSales> topProducts = salesRepository.findTopProducts(sellerId, from, to, topLimit);
+
+        BigDecimal revenue = daily.stream().map(DailySales::revenue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long units = daily.stream().mapToLong(DailySales::units).sum();
+        return new SellerSalesReport(sellerId, from, to, revenue, units, daily, topProducts);
+    }
+}
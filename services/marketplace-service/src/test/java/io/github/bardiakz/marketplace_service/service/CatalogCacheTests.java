@@ -0,0 +1,54 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogCacheTests {
+
+	private final CatalogCache cache = new CatalogCache(JsonMapper.builder().build(), 100);
+
+	@Test
+	void cachedPageIsServedUntilInvalidated() {
+		AtomicInteger loads = new AtomicInteger();
+
+		CatalogCache.CachedPage first = cache.get("page:0:20", () -> List.of("book-" + loads.incrementAndGet()));
+		CatalogCache.CachedPage second = cache.get("page:0:20", () -> List.of("book-" + loads.incrementAndGet()));
+		assertEquals(1, loads.get());
+		assertEquals(first.etag(), second.etag());
+
+		cache.invalidate();
+		CatalogCache.CachedPage reloaded = cache.get("page:0:20", () -> List.of("book-" + loads.incrementAndGet()));
+		assertEquals(2, loads.get());
+		assertNotEquals(first.etag(), reloaded.etag());
+	}
+
+	@Test
+	void unchangedContentKeepsItsEtagAcrossVersions() {
+		CatalogCache.CachedPage before = cache.get("all", () -> List.of("book"));
+		cache.invalidate();
+		CatalogCache.CachedPage after = cache.get("all", () -> List.of("book"));
+
+		assertNotEquals(before.version(), after.version());
+		assertEquals(before.etag(), after.etag());
+	}
+
+	@Test
+	void ifNoneMatchAcceptsListsWeakTagsAndWildcard() {
+		CatalogCache.CachedPage page = cache.get("all", () -> List.of("book"));
+
+		assertTrue(page.matches(page.etag()));
+		assertTrue(page.matches("\"other\", W/" + page.etag()));
+		assertTrue(page.matches("*"));
+		assertFalse(page.matches("\"other\""));
+		assertFalse(page.matches(null));
+	}
+
+}
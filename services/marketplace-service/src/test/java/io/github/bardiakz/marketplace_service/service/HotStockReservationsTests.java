@@ -0,0 +1,115 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import io.github.bardiakz.marketplace_service.repository.ProductStockWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotStockReservationsTests {
+
+	@Test
+	void concurrentOrdersNeverOversellHotProduct() throws Exception {
+		HotStockReservations reservations = reservations(Map.of(1L, 100, 2L, 0));
+
+		int threads = 32;
+		AtomicInteger admitted = new AtomicInteger();
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			pool.submit(() -> {
+				go.await();
+				for (int attempt = 0; attempt < 10; attempt++) {
+					if (reservations.tryReserve(Map.of(1L, 1)).isEmpty()) {
+						admitted.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+		go.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertEquals(100, admitted.get());
+		assertEquals(List.of(1L), reservations.tryReserve(Map.of(1L, 1)));
+	}
+
+	@Test
+	void reservationIsAllOrNothing() {
+		HotStockReservations reservations = reservations(Map.of(1L, 5, 2L, 1));
+
+		assertEquals(List.of(2L), reservations.tryReserve(Map.of(1L, 5, 2L, 2)));
+		// The failed attempt must not have kept product 1's units
+		assertTrue(reservations.tryReserve(Map.of(1L, 5)).isEmpty());
+
+		reservations.release(Map.of(1L, 3));
+		assertTrue(reservations.tryReserve(Map.of(1L, 3)).isEmpty());
+	}
+
+	@Test
+	void onlyConfiguredProductsAreHot() {
+		HotStockReservations reservations = reservations(Map.of(1L, 5));
+
+		assertTrue(reservations.isHot(1L));
+		assertFalse(reservations.isHot(3L));
+	}
+
+	@Test
+	void stockWrittenToProductsAfterWarmUpReachesTheCounter() {
+		HotStockReservations reservations = reservations(Map.of(1L, 5));
+
+		// An order that found the product cold before warm-up and wrote its row afterwards
+		assertTrue(reservations.reserveWritten(Map.of(1L, 4, 3L, 10)).isEmpty());
+		assertEquals(List.of(1L), reservations.tryReserve(Map.of(1L, 2)));
+		assertEquals(List.of(1L), reservations.reserveWritten(Map.of(1L, 2)));
+
+		reservations.releaseWritten(Map.of(1L, 4));
+		assertTrue(reservations.tryReserve(Map.of(1L, 5)).isEmpty());
+	}
+
+	@Test
+	void countersAreOnlyLoadedUnderTheReconcilerLock() {
+		ProductStockWriter stockWriter = mock(ProductStockWriter.class);
+		when(stockWriter.lockStock(anyCollection())).thenReturn(Map.of(1L, 5));
+		HotStockReconciler reconciler = mock(HotStockReconciler.class);
+		HotStockReservations reservations = new HotStockReservations(List.of(1L), stockWriter, reconciler,
+				mock(PlatformTransactionManager.class));
+
+		// The mocked reconciler never runs the load, so the counters stay unused
+		reservations.warmUp();
+
+		assertFalse(reservations.isHot(1L));
+	}
+
+	private static HotStockReservations reservations(Map<Long, Integer> stock) {
+		ProductStockWriter stockWriter = mock(ProductStockWriter.class);
+		when(stockWriter.lockStock(anyCollection())).thenReturn(stock);
+		HotStockReconciler reconciler = mock(HotStockReconciler.class);
+		doAnswer(invocation -> {
+			invocation.<Runnable>getArgument(0).run();
+			return 0;
+		}).when(reconciler).reconcileThen(any());
+
+		HotStockReservations reservations = new HotStockReservations(List.copyOf(stock.keySet()), stockWriter,
+				reconciler, mock(PlatformTransactionManager.class));
+		reservations.warmUp();
+		return reservations;
+	}
+
+}
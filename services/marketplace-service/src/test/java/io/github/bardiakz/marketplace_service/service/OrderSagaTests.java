@@ -0,0 +1,116 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import io.github.bardiakz.marketplace_service.event.OrderEventPublisher;
+import io.github.bardiakz.marketplace_service.model.Order;
+import io.github.bardiakz.marketplace_service.model.OrderItem;
+import io.github.bardiakz.marketplace_service.model.OrderStatus;
+import io.github.bardiakz.marketplace_service.repository.OrderRepository;
+import io.github.bardiakz.marketplace_service.repository.OrderSummaryRepository;
+import io.github.bardiakz.marketplace_service.repository.OrderSummaryWriter;
+import io.github.bardiakz.marketplace_service.repository.ProductRepository;
+import io.github.bardiakz.marketplace_service.repository.ProductStockWriter;
+import io.github.bardiakz.marketplace_service.repository.SagaEventLog;
+import io.github.bardiakz.marketplace_service.repository.SellerSalesRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSagaTests {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final ProductStockWriter stockWriter = mock(ProductStockWriter.class);
+	private final SagaEventLog sagaEventLog = mock(SagaEventLog.class);
+	private final OrderEventPublisher eventPublisher = mock(OrderEventPublisher.class);
+	private final OrderService orderService = new OrderService(
+			orderRepository, mock(ProductRepository.class), stockWriter, mock(HotStockReservations.class),
+			mock(CatalogCache.class), sagaEventLog, mock(OrderSummaryWriter.class), mock(OrderSummaryRepository.class),
+			mock(SellerSalesRepository.class), eventPublisher);
+
+	private final Set<String> processed = new HashSet<>();
+
+	OrderSagaTests() {
+		// Behaves like the unique index: only the first insert of a key succeeds
+		when(sagaEventLog.markProcessed(anyLong(), anyString()))
+				.thenAnswer(invocation -> processed.add(invocation.getArgument(0) + "/" + invocation.getArgument(1)));
+	}
+
+	@Test
+	void redeliveredPaymentFailedCompensatesOnce() {
+		Order order = paymentPendingOrder();
+
+		orderService.handlePaymentFailed(1L, "pay-1", "declined");
+		orderService.handlePaymentFailed(1L, "pay-1", "declined");
+
+		assertEquals(OrderStatus.FAILED, order.getStatus());
+		verify(stockWriter, times(1)).release(anyMap());
+		verify(orderRepository, times(1)).findByIdForUpdate(1L);
+	}
+
+	@Test
+	void paymentFailedAfterCompletionIsIgnored() {
+		Order order = paymentPendingOrder();
+
+		orderService.handlePaymentCompleted(1L, "pay-1");
+		orderService.handlePaymentFailed(1L, "pay-2", "late failure");
+
+		assertEquals(OrderStatus.COMPLETED, order.getStatus());
+		verify(stockWriter, never()).release(anyMap());
+	}
+
+	@Test
+	void paymentCompletedAfterExpiryRequestsRefund() {
+		Order order = paymentPendingOrder();
+		order.setStatus(OrderStatus.EXPIRED);
+
+		orderService.handlePaymentCompleted(1L, "pay-1");
+		orderService.handlePaymentCompleted(1L, "pay-1");
+
+		assertEquals(OrderStatus.EXPIRED, order.getStatus());
+		verify(eventPublisher, times(1)).publishRefundRequested(1L, "pay-1", "Order expired");
+	}
+
+	@Test
+	void cancelledOrderCannotBeCancelledAgain() {
+		Order order = paymentPendingOrder();
+
+		orderService.cancelOrder(1L, "user-1");
+
+		assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(1L, "user-1"));
+		verify(stockWriter, times(1)).release(anyMap());
+		assertEquals(OrderStatus.CANCELLED, order.getStatus());
+	}
+
+	@Test
+	void terminalStatesHaveNoTransitions() {
+		assertTrue(OrderStatus.PAYMENT_PENDING.canTransitionTo(OrderStatus.FAILED));
+		assertFalse(OrderStatus.FAILED.canTransitionTo(OrderStatus.CANCELLED));
+		assertFalse(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.FAILED));
+		assertFalse(OrderStatus.COMPLETED.canTransitionTo(OrderStatus.FAILED));
+	}
+
+	private Order paymentPendingOrder() {
+		Order order = new Order("user-1", BigDecimal.TEN);
+		order.setId(1L);
+		order.addItem(new OrderItem(5L, "Book", 2, BigDecimal.valueOf(5)));
+		order.markAsPaymentPending();
+		when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+		return order;
+	}
+
+}
@@ -0,0 +1,133 @@
+package io.github.bardiakz.marketplace_service.service;
+
+import io.github.bardiakz.marketplace_service.dto.CreateOrderRequest;
+import io.github.bardiakz.marketplace_service.dto.OrderItemRequest;
+import io.github.bardiakz.marketplace_service.event.OrderEventPublisher;
+import io.github.bardiakz.marketplace_service.model.Order;
+import io.github.bardiakz.marketplace_service.model.OrderItem;
+import io.github.bardiakz.marketplace_service.model.Product;
+import io.github.bardiakz.marketplace_service.model.ProductCategory;
+import io.github.bardiakz.marketplace_service.repository.OrderRepository;
+import io.github.bardiakz.marketplace_service.repository.OrderSummaryRepository;
+import io.github.bardiakz.marketplace_service.repository.OrderSummaryWriter;
+import io.github.bardiakz.marketplace_service.repository.ProductRepository;
+import io.github.bardiakz.marketplace_service.repository.ProductStockWriter;
+import io.github.bardiakz.marketplace_service.repository.SagaEventLog;
+import io.github.bardiakz.marketplace_service.repository.SellerSalesRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The number of product statements per order must not grow with the cart size
+ */
+class OrderServiceBatchTests {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final ProductStockWriter stockWriter = mock(ProductStockWriter.class);
+	private final SagaEventLog sagaEventLog = mock(SagaEventLog.class);
+	private final OrderService orderService = new OrderService(
+			orderRepository, productRepository, stockWriter, mock(HotStockReservations.class), mock(CatalogCache.class),
+			sagaEventLog, mock(OrderSummaryWriter.class), mock(OrderSummaryRepository.class),
+			mock(SellerSalesRepository.class), mock(OrderEventPublisher.class));
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 5, 50})
+	void createOrderLoadsAndReservesWholeCartOnce(int cartSize) {
+		List<Product> products = products(cartSize);
+		when(productRepository.findAllById(anyIterable())).thenReturn(products);
+		when(stockWriter.reserve(anyMap())).thenReturn(List.of());
+		when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		List<OrderItemRequest> items = new ArrayList<>();
+		for (Product product : products) {
+			items.add(new OrderItemRequest(product.getId(), 2));
+		}
+		orderService.createOrder(new CreateOrderRequest(items), "user-1");
+
+		verify(productRepository, times(1)).findAllById(anyIterable());
+		verify(productRepository, never()).findById(anyLong());
+		verify(productRepository, never()).save(any(Product.class));
+		verify(stockWriter, times(1)).reserve(anyMap());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 5, 50})
+	void paymentFailureReleasesWholeCartWithoutLoadingProducts(int cartSize) {
+		Order order = new Order("user-1", BigDecimal.TEN);
+		for (Product product : products(cartSize)) {
+			order.addItem(new OrderItem(
+					product.getId(), product.getName(), 1, product.getPrice()));
+		}
+		when(sagaEventLog.markProcessed(7L, "PaymentFailed:pay-7")).thenReturn(true);
+		when(orderRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(order));
+
+		orderService.handlePaymentFailed(7L, "pay-7", "declined");
+
+		verify(productRepository, never()).findById(anyLong());
+		verify(productRepository, never()).findAllById(anyIterable());
+		verify(stockWriter, times(1)).release(anyMap());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 5})
+	void createOrderFailsWhenAnyProductCannotBeReserved(int cartSize) {
+		List<Product> products = products(cartSize);
+		when(productRepository.findAllById(anyIterable())).thenReturn(products);
+		when(stockWriter.reserve(anyMap())).thenReturn(List.of(products.getLast().getId()));
+
+		List<OrderItemRequest> items = products.stream()
+				.map(product -> new OrderItemRequest(product.getId(), 1))
+				.toList();
+
+		InsufficientStockException error = assertThrows(InsufficientStockException.class,
+				() -> orderService.createOrder(new CreateOrderRequest(items), "user-1"));
+		assertEquals("Insufficient stock for product: " + products.getLast().getName(), error.getMessage());
+		verify(orderRepository, never()).save(any(Order.class));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {3})
+	void duplicateCartLinesAreReservedAsOneQuantity(int quantity) {
+		Product product = products(1).getFirst();
+		when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+		when(stockWriter.reserve(anyMap())).thenReturn(List.of());
+		when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		orderService.createOrder(new CreateOrderRequest(List.of(
+				new OrderItemRequest(product.getId(), quantity),
+				new OrderItemRequest(product.getId(), quantity))), "user-1");
+
+		verify(stockWriter).reserve(Map.of(product.getId(), quantity * 2));
+	}
+
+	private static List<Product> products(int count) {
+		List<Product> products = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			Product product = new Product("Product " + id, "", BigDecimal.valueOf(10),
+					100, ProductCategory.BOOK, "seller-1");
+			product.setId(id);
+			products.add(product);
+		}
+		return products;
+	}
+
+}
@@ -34,6 +34,9 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.queue.booking.cancelled}")
     private String bookingCancelledQueue;
 
+    @Value("${rabbitmq.queue.booking.batch-confirmed}")
+    private String bookingBatchConfirmedQueue;
+
     // Marketplace Service Events
     @Value("${rabbitmq.exchange.marketplace}")
     private String marketplaceExchange;
@@ -133,6 +136,18 @@ public class RabbitMQConfig {
                 .with("booking.cancelled");
     }
 
+    @Bean
+    public Queue bookingBatchConfirmedQueue() {
+        return new Queue(bookingBatchConfirmedQueue, true);
+    }
+
+    @Bean
+    public Binding bookingBatchConfirmedBinding() {
+        return BindingBuilder.bind(bookingBatchConfirmedQueue())
+                .to(bookingExchange())
+                .with("booking.batch.confirmed");
+    }
+
     // ==================== MARKETPLACE EXCHANGE ====================
     @Bean
     public TopicExchange marketplaceExchange() {
@@ -0,0 +1,122 @@
+package io.github.bardiakz.notification_service.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One event for all bookings of a batch or recurring booking request.
+ * userId is the booking-service user (the username), userEmail the recipient.
+ */
+public class BookingsConfirmedEvent {
+
+    @JsonProperty("userId")
+    private String userId;
+
+    @JsonProperty("userEmail")
+    private String userEmail;
+
+    @JsonProperty("resourceId")
+    private Long resourceId;
+
+    @JsonProperty("resourceName")
+    private String resourceName;
+
+    @JsonProperty("bookings")
+    private List<Slot> bookings = new ArrayList<>();
+
+    @JsonProperty("timestamp")
+    private LocalDateTime timestamp;
+
+    public BookingsConfirmedEvent() {
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    public void setResourceName(String resourceName) {
+        this.resourceName = resourceName;
+    }
+
+    public List<Slot> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(List<Slot> bookings) {
+        this.bookings = bookings;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public static class Slot {
+
+        @JsonProperty("bookingId")
+        private Long bookingId;
+
+        @JsonProperty("startTime")
+        private LocalDateTime startTime;
+
+        @JsonProperty("endTime")
+        private LocalDateTime endTime;
+
+        public Slot() {
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public void setBookingId(Long bookingId) {
+            this.bookingId = bookingId;
+        }
+
+        public LocalDateTime getStartTime() {
+            return startTime;
+        }
+
+        public void setStartTime(LocalDateTime startTime) {
+            this.startTime = startTime;
+        }
+
+        public LocalDateTime getEndTime() {
+            return endTime;
+        }
+
+        public void setEndTime(LocalDateTime endTime) {
+            this.endTime = endTime;
+        }
+    }
+}
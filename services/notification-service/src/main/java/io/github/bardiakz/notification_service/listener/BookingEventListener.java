@@ -3,6 +3,7 @@ package io.github.bardiakz.notification_service.listener;
 import io.github.bardiakz.notification_service.entity.NotificationType;
 import io.github.bardiakz.notification_service.event.BookingCancelledEvent;
 import io.github.bardiakz.notification_service.event.BookingConfirmedEvent;
+import io.github.bardiakz.notification_service.event.BookingsConfirmedEvent;
 import io.github.bardiakz.notification_service.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +12,8 @@ import org.springframework.stereotype.Component;
 
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Component
 public class BookingEventListener {
@@ -51,6 +54,45 @@ public class BookingEventListener {
         }
     }
 
+    /**
+     * One email for all bookings of a batch or recurring booking request
+     */
+    @RabbitListener(queues = "${rabbitmq.queue.booking.batch-confirmed}")
+    public void handleBookingsConfirmed(BookingsConfirmedEvent event) {
+        logger.info("Received BookingsConfirmedEvent for {} bookings on resource: {}",
+                event.getBookings().size(), event.getResourceId());
+
+        if (event.getUserEmail() == null) {
+            logger.warn("No email for user {} in BookingsConfirmedEvent, confirmation not sent", event.getUserId());
+            return;
+        }
+
+        try {
+            String slots = event.getBookings().stream()
+                    .map(slot -> "<li>#" + slot.getBookingId() + ": " + slot.getStartTime().format(DATE_FORMATTER) +
+                            " - " + slot.getEndTime().format(DATE_FORMATTER) + "</li>")
+                    .collect(Collectors.joining("\n"));
+            Map<String, String> variables = Map.of(
+                    "resourceName", Objects.requireNonNullElse(event.getResourceName(), "Resource " + event.getResourceId()),
+                    "bookingCount", String.valueOf(event.getBookings().size()),
+                    "slots", slots
+            );
+
+            notificationService.createFromTemplate(
+                    "booking-batch-confirmation",
+                    event.getUserEmail(),
+                    NotificationType.BOOKING_CONFIRMATION,
+                    variables,
+                    null // booking-service only knows the username, not the numeric user id
+            );
+
+            logger.info("Batch booking confirmation email sent to: {}", event.getUserEmail());
+
+        } catch (Exception e) {
+            logger.error("Failed to send batch booking confirmation email: {}", e.getMessage(), e);
+        }
+    }
+
     @RabbitListener(queues = "${rabbitmq.queue.booking.cancelled}")
     public void handleBookingCancelled(BookingCancelledEvent event) {
         logger.info("Received BookingCancelledEvent for booking: {}", event.getBookingId());
@@ -0,0 +1,56 @@
+package io.github.bardiakz.notification_service.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bardiakz.notification_service.config.RabbitMQConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingsConfirmedEventTests {
+
+	@Test
+	void producerPayloadReadsIntoEvent() throws Exception {
+		LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+		LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_000_000);
+
+		// Built the way booking-service's BookingEventPublisher.publishBookingsConfirmed builds it
+		Map<String, Object> slot = new HashMap<>();
+		slot.put("bookingId", 11L);
+		slot.put("startTime", start.toString());
+		slot.put("endTime", start.plusHours(1).toString());
+		Map<String, Object> payload = new HashMap<>();
+		payload.put("eventType", "BookingsConfirmed");
+		payload.put("resourceId", 5L);
+		payload.put("userId", "alice");
+		payload.put("userEmail", "alice@example.com");
+		payload.put("bookings", List.of(slot));
+		payload.put("timestamp", now.toString());
+
+		MessageProperties properties = new MessageProperties();
+		properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+		properties.setInferredArgumentType(BookingsConfirmedEvent.class);
+		Message message = new Message(new ObjectMapper().writeValueAsString(payload).getBytes(StandardCharsets.UTF_8),
+				properties);
+
+		BookingsConfirmedEvent event = (BookingsConfirmedEvent) new RabbitMQConfig().jsonMessageConverter()
+				.fromMessage(message);
+
+		assertEquals("alice", event.getUserId());
+		assertEquals("alice@example.com", event.getUserEmail());
+		assertEquals(5L, event.getResourceId());
+		assertEquals(now, event.getTimestamp());
+		assertEquals(1, event.getBookings().size());
+		assertEquals(11L, event.getBookings().getFirst().getBookingId());
+		assertEquals(start, event.getBookings().getFirst().getStartTime());
+		assertEquals(start.plusHours(1), event.getBookings().getFirst().getEndTime());
+	}
+
+}
@@ -0,0 +1,74 @@
+package io.github.bardiakz.payment_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Makes sure payments has the uk_payments_order_id unique constraint that PaymentWriter's
+ * ON CONFLICT (order_id) relies on. Hibernate only logs it when it cannot add the
+ * constraint because of duplicate payments from before it existed, so this moves the
+ * duplicates to payments_duplicates and adds it. Runs before the listeners start and
+ * fails startup if the constraint still cannot be added.
+ * Of each order's payments the COMPLETED one (else REFUNDED, PROCESSING, any) with the
+ * lowest id is kept; moved COMPLETED payments were charged twice and need a refund.
+ */
+@Component
+public class PaymentOrderConstraintInstaller implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentOrderConstraintInstaller.class);
+
+    public static final String CONSTRAINT_NAME = "uk_payments_order_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentOrderConstraintInstaller(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conrelid = 'payments'::regclass AND conname = ?",
+                Integer.class, CONSTRAINT_NAME);
+        if (existing != null && existing > 0) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Blocks payment writes until the constraint is in place
+                jdbcTemplate.execute("LOCK TABLE payments IN SHARE ROW EXCLUSIVE MODE");
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS payments_duplicates (LIKE payments)");
+                int moved = jdbcTemplate.update("""
+                        WITH ranked AS (
+                            SELECT id, row_number() OVER (PARTITION BY order_id ORDER BY
+                                CASE status WHEN 'COMPLETED' THEN 0 WHEN 'REFUNDED' THEN 1
+                                            WHEN 'PROCESSING' THEN 2 ELSE 3 END, id) AS rank
+                            FROM payments
+                        ), moved AS (
+                            DELETE FROM payments p USING ranked r
+                            WHERE p.id = r.id AND r.rank > 1
+                            RETURNING p.*
+                        )
+                        INSERT INTO payments_duplicates SELECT * FROM moved
+                        """);
+                jdbcTemplate.execute("ALTER TABLE payments ADD CONSTRAINT " + CONSTRAINT_NAME + " UNIQUE (order_id)");
+                if (moved > 0) {
+                    log.error("Moved {} duplicate payments to payments_duplicates; completed ones charged an order twice",
+                            moved);
+                }
+            });
+            log.info("Installed payment constraint {}", CONSTRAINT_NAME);
+        } catch (Exception e) {
+            // Without the constraint every OrderCreated batch would fail and be redelivered forever
+            throw new IllegalStateException("Cannot install payment constraint " + CONSTRAINT_NAME, e);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package io.github.bardiakz.payment_service.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -19,6 +23,8 @@ public class RabbitMQConfig {
     // Listen to Marketplace events
     public static final String MARKETPLACE_EXCHANGE = "marketplace.events";
     public static final String PAYMENT_ORDER_CREATED_QUEUE = "payment.order.created.queue";
+    public static final String PAYMENT_ORDER_CREATED_RETRY_QUEUE = "payment.order.created.retry.queue";
+    public static final String PAYMENT_REFUND_REQUESTED_QUEUE = "payment.refund.requested.queue";
 
     // Payment Exchange
     @Bean
@@ -71,6 +77,55 @@ public class RabbitMQConfig {
                 .with("order.created");
     }
 
+    @Bean
+    public Queue paymentRefundRequestedQueue() {
+        return new Queue(PAYMENT_REFUND_REQUESTED_QUEUE, true);
+    }
+
+    @Bean
+    public Binding paymentRefundRequestedBinding(Queue paymentRefundRequestedQueue,
+                                                 TopicExchange marketplaceExchange) {
+        return BindingBuilder.bind(paymentRefundRequestedQueue)
+                .to(marketplaceExchange)
+                .with("order.refund.requested");
+    }
+
+    /**
+     * Holding queue for OrderCreated batches the gateway bulkhead could not take: messages
+     * wait out the TTL and are dead-lettered back to the OrderCreated queue.
+     * RabbitMQ has no delayed nack, so this stands in for one.
+     */
+    @Bean
+    public Queue paymentOrderCreatedRetryQueue(
+            @Value("${payment.order-created.retry-delay:PT5S}") Duration retryDelay) {
+        return QueueBuilder.durable(PAYMENT_ORDER_CREATED_RETRY_QUEUE)
+                .ttl((int) retryDelay.toMillis())
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(PAYMENT_ORDER_CREATED_QUEUE)
+                .build();
+    }
+
+    /**
+     * Batch consumer for OrderCreated: up to batchSize messages, or whatever arrived
+     * within receiveTimeout, are handed to the listener as one list and acked together
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory orderCreatedBatchFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            @Value("${payment.order-created.batch-size:50}") int batchSize,
+            @Value("${payment.order-created.receive-timeout:PT0.2S}") Duration receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout.toMillis());
+        factory.setPrefetchCount(batchSize * 2);
+        return factory;
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new JacksonJsonMessageConverter();
@@ -2,10 +2,18 @@ package io.github.bardiakz.payment_service.controller;
 
 import io.github.bardiakz.payment_service.dto.PaymentResponse;
 import io.github.bardiakz.payment_service.service.PaymentService;
+import io.github.bardiakz.payment_service.service.SettlementExporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +23,11 @@ public class PaymentController {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
     private final PaymentService paymentService;
+    private final SettlementExporter settlementExporter;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, SettlementExporter settlementExporter) {
         this.paymentService = paymentService;
+        this.settlementExporter = settlementExporter;
     }
 
     @GetMapping("/user/{username}")
@@ -59,4 +69,29 @@ public class PaymentController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reconciled settlement report for one day as CSV (FACULTY only).
+     * Rows are streamed from the database cursor to the response as they are read.
+     */
+    @GetMapping("/settlements/{day}")
+    public ResponseEntity<?> exportSettlement(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+
+        if (!"FACULTY".equals(userRole)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only FACULTY can export settlements"));
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            settlementExporter.export(day, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"settlement-" + day + ".csv\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.bardiakz.payment_service.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * The parts of Marketplace's OrderCreated event needed to charge the order
+ */
+public record OrderCreated(
+        Long orderId,
+        String userId,
+        BigDecimal amount
+) {}
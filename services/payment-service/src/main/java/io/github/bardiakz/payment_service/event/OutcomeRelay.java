@@ -0,0 +1,72 @@
+package io.github.bardiakz.payment_service.event;
+
+import io.github.bardiakz.payment_service.model.Payment;
+import io.github.bardiakz.payment_service.repository.PaymentWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Re-sends PaymentCompleted/PaymentFailed for finished payments whose outcome the broker
+ * never confirmed (publishing failed after the outcome was saved and the OrderCreated
+ * batch acked). Payments younger than the grace period are still being published by
+ * PaymentService. A batch is locked, sent, confirmed and marked published in one
+ * transaction, so outcomes are delivered at least once.
+ */
+@Component
+public class OutcomeRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutcomeRelay.class);
+
+    private final PaymentWriter paymentWriter;
+    private final PaymentEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration grace;
+    private final int batchSize;
+
+    public OutcomeRelay(PaymentWriter paymentWriter,
+                        PaymentEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${payment.outcome-relay.grace:PT30S}") Duration grace,
+                        @Value("${payment.outcome-relay.batch-size:100}") int batchSize) {
+        this.paymentWriter = paymentWriter;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.grace = grace;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outcome-relay.interval-ms:10000}")
+    public void relay() {
+        try {
+            int sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch(LocalDateTime.now().minus(grace)));
+                if (sent > 0) {
+                    log.info("Re-sent {} unconfirmed payment outcome events", sent);
+                }
+            } while (sent == batchSize);
+        } catch (Exception e) {
+            // Payments stay unpublished and are retried on the next run
+            log.error("Failed to relay payment outcome events", e);
+        }
+    }
+
+    private int relayBatch(LocalDateTime finishedBefore) {
+        List<Payment> batch = paymentWriter.lockUnpublished(finishedBefore, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        eventPublisher.publishOutcomes(batch);
+        paymentWriter.markPublished(batch);
+        return batch.size();
+    }
+}
@@ -1,11 +1,15 @@
 package io.github.bardiakz.payment_service.event;
 
+import io.github.bardiakz.payment_service.dto.OrderCreated;
+import io.github.bardiakz.payment_service.service.GatewayBulkhead;
 import io.github.bardiakz.payment_service.service.PaymentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -14,29 +18,81 @@ public class PaymentEventHandler {
     private static final Logger log = LoggerFactory.getLogger(PaymentEventHandler.class);
 
     private final PaymentService paymentService;
+    private final GatewayBulkhead gatewayBulkhead;
+    private final PaymentEventPublisher eventPublisher;
 
-    public PaymentEventHandler(PaymentService paymentService) {
+    public PaymentEventHandler(PaymentService paymentService,
+                               GatewayBulkhead gatewayBulkhead,
+                               PaymentEventPublisher eventPublisher) {
         this.paymentService = paymentService;
+        this.gatewayBulkhead = gatewayBulkhead;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Listen to OrderCreated events from Marketplace Service
      * Saga Step 2 (T2): Process payment
+     * Messages arrive in batches (see RabbitMQConfig.orderCreatedBatchFactory) and are
+     * acked together once the batch's payments are persisted. Failures propagate so the
+     * broker redelivers the batch; PaymentService never pays an order twice.
+     * While the gateway queue is full the batch is deferred to the retry queue instead.
      */
-    @RabbitListener(queues = "payment.order.created.queue")
-    public void handleOrderCreated(Map<String, Object> event) {
-        try {
-            log.info("Received OrderCreated event: {}", event);
+    @RabbitListener(queues = "payment.order.created.queue", containerFactory = "orderCreatedBatchFactory")
+    public void handleOrderCreated(List<Map<String, Object>> events) {
+        log.info("Received {} OrderCreated events", events.size());
+
+        if (!gatewayBulkhead.tryAdmit(events.size())) {
+            eventPublisher.deferOrderCreated(events);
+            return;
+        }
+
+        List<OrderCreated> orders = new ArrayList<>(events.size());
+        for (Map<String, Object> event : events) {
+            Long orderId = orderId(event);
+            String userId = userId(event);
+            BigDecimal amount = amount(event);
+            if (orderId == null || userId == null || amount == null) {
+                // Malformed events can never succeed; failing the batch would only redeliver it forever
+                log.error("Dropping malformed OrderCreated event: {}", event);
+                continue;
+            }
+            orders.add(new OrderCreated(orderId, userId, amount));
+        }
+
+        paymentService.handleOrdersCreated(orders);
+    }
+
+    /**
+     * Listen to RefundRequested events from Marketplace Service, sent when a payment
+     * completed after its order had expired, been cancelled or failed
+     * Failures propagate so the broker redelivers; refunding is idempotent.
+     */
+    @RabbitListener(queues = "payment.refund.requested.queue")
+    public void handleRefundRequested(Map<String, Object> event) {
+        log.info("Received RefundRequested event: {}", event);
+
+        Long orderId = orderId(event);
+        if (orderId == null) {
+            log.error("Dropping malformed RefundRequested event: {}", event);
+            return;
+        }
+        paymentService.refundPayment(orderId, String.valueOf(event.getOrDefault("reason", "Order not fulfilled")));
+    }
 
-            Long orderId = ((Number) event.get("orderId")).longValue();
-            String userId = (String) event.get("userId");
-            BigDecimal amount = new BigDecimal(event.get("totalAmount").toString());
+    private Long orderId(Map<String, Object> event) {
+        return event.get("orderId") instanceof Number id ? id.longValue() : null;
+    }
 
-            paymentService.handleOrderCreated(orderId, userId, amount);
+    private String userId(Map<String, Object> event) {
+        Object userId = event.get("userId");
+        return userId == null ? null : String.valueOf(userId);
+    }
 
-        } catch (Exception e) {
-            log.error("Error handling OrderCreated event", e);
-            // In production: send to DLQ
+    private BigDecimal amount(Map<String, Object> event) {
+        try {
+            return new BigDecimal(String.valueOf(event.get("totalAmount")));
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,16 @@
 package io.github.bardiakz.payment_service.event;
 
+import io.github.bardiakz.payment_service.config.RabbitMQConfig;
 import io.github.bardiakz.payment_service.model.Payment;
+import io.github.bardiakz.payment_service.model.PaymentStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -15,9 +20,12 @@ public class PaymentEventPublisher {
     private static final String EXCHANGE_NAME = "payment.events";
 
     private final RabbitTemplate rabbitTemplate;
+    private final Duration confirmTimeout;
 
-    public PaymentEventPublisher(RabbitTemplate rabbitTemplate) {
+    public PaymentEventPublisher(RabbitTemplate rabbitTemplate,
+                                 @Value("${payment.events.confirm-timeout:PT5S}") Duration confirmTimeout) {
         this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeout = confirmTimeout;
     }
 
     /**
@@ -25,14 +33,7 @@ public class PaymentEventPublisher {
      * Marketplace will listen and mark order as COMPLETED
      */
     public void publishPaymentCompleted(Payment payment) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("eventType", "PaymentCompleted");
-        event.put("paymentId", payment.getId());
-        event.put("orderId", payment.getOrderId());
-        event.put("userId", payment.getUserId());
-        event.put("amount", payment.getAmount());
-        event.put("transactionId", payment.getTransactionId());
-        event.put("timestamp", System.currentTimeMillis());
+        Map<String, Object> event = completedEvent(payment);
 
         try {
             rabbitTemplate.convertAndSend(EXCHANGE_NAME, "payment.completed", event);
@@ -47,14 +48,7 @@ public class PaymentEventPublisher {
      * Marketplace will listen and restore stock (C1)
      */
     public void publishPaymentFailed(Payment payment) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("eventType", "PaymentFailed");
-        event.put("paymentId", payment.getId());
-        event.put("orderId", payment.getOrderId());
-        event.put("userId", payment.getUserId());
-        event.put("amount", payment.getAmount());
-        event.put("reason", payment.getFailureReason());
-        event.put("timestamp", System.currentTimeMillis());
+        Map<String, Object> event = failedEvent(payment);
 
         try {
             rabbitTemplate.convertAndSend(EXCHANGE_NAME, "payment.failed", event);
@@ -64,4 +58,67 @@ public class PaymentEventPublisher {
             log.error("Failed to publish PaymentFailed event", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Publish PaymentCompleted/PaymentFailed for a batch of finished payments on one
+     * channel and wait once for the broker to confirm all of them.
+     * Failures propagate: unconfirmed outcomes are left to OutcomeRelay.
+     */
+    public void publishOutcomes(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (Payment payment : payments) {
+                if (payment.getStatus() == PaymentStatus.COMPLETED) {
+                    operations.convertAndSend(EXCHANGE_NAME, "payment.completed", completedEvent(payment));
+                } else {
+                    operations.convertAndSend(EXCHANGE_NAME, "payment.failed", failedEvent(payment));
+                }
+            }
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+        log.info("Published {} payment outcome events", payments.size());
+    }
+
+    /**
+     * Park OrderCreated events in the retry queue, from where they return after the
+     * retry delay. Unlike the saga events, failures propagate: the caller must not ack
+     * messages that were not parked.
+     */
+    public void deferOrderCreated(List<Map<String, Object>> events) {
+        rabbitTemplate.invoke(operations -> {
+            for (Map<String, Object> event : events) {
+                operations.convertAndSend("", RabbitMQConfig.PAYMENT_ORDER_CREATED_RETRY_QUEUE, event);
+            }
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+        log.info("Deferred {} OrderCreated events", events.size());
+    }
+
+    private Map<String, Object> completedEvent(Payment payment) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", "PaymentCompleted");
+        event.put("paymentId", payment.getId());
+        event.put("orderId", payment.getOrderId());
+        event.put("userId", payment.getUserId());
+        event.put("amount", payment.getAmount());
+        event.put("transactionId", payment.getTransactionId());
+        event.put("timestamp", System.currentTimeMillis());
+        return event;
+    }
+
+    private Map<String, Object> failedEvent(Payment payment) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", "PaymentFailed");
+        event.put("paymentId", payment.getId());
+        event.put("orderId", payment.getOrderId());
+        event.put("userId", payment.getUserId());
+        event.put("amount", payment.getAmount());
+        event.put("reason", payment.getFailureReason());
+        event.put("timestamp", System.currentTimeMillis());
+        return event;
+    }
+}
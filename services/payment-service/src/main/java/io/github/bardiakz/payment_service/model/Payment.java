@@ -5,7 +5,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+        // One payment per order: a redelivered OrderCreated must never charge twice
+        // (PaymentOrderConstraintInstaller adds it when old duplicates stop Hibernate)
+        @UniqueConstraint(name = "uk_payments_order_id", columnNames = "order_id")
+}, indexes = {
+        @Index(name = "idx_payments_created_at", columnList = "created_at"),
+        @Index(name = "idx_payments_outcome_published", columnList = "outcome_published")
+})
 public class Payment {
 
     @Id
@@ -41,6 +48,10 @@ public class Payment {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // False from finishing until the broker confirmed the outcome event; null before this existed
+    @Column(name = "outcome_published")
+    private Boolean outcomePublished;
+
     // Constructors
     public Payment() {}
 
@@ -64,6 +75,16 @@ public class Payment {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public void markAsRefunded(String reason) {
+        this.status = PaymentStatus.REFUNDED;
+        this.failureReason = reason;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == PaymentStatus.COMPLETED || status == PaymentStatus.FAILED;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -85,6 +106,8 @@ public class Payment {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public Boolean getOutcomePublished() { return outcomePublished; }
+    public void setOutcomePublished(Boolean outcomePublished) { this.outcomePublished = outcomePublished; }
 
     @PreUpdate
     protected void onUpdate() {
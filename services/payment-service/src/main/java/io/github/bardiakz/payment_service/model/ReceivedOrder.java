@@ -0,0 +1,44 @@
+package io.github.bardiakz.payment_service.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order as announced by Marketplace's OrderCreated event, kept so payments can be
+ * reconciled against what was actually ordered
+ */
+@Entity
+@Table(name = "received_orders", indexes = {
+        @Index(name = "idx_received_orders_received_at", columnList = "received_at")
+})
+public class ReceivedOrder {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt = LocalDateTime.now();
+
+    // Constructors
+    public ReceivedOrder() {}
+
+    public ReceivedOrder(Long orderId, String userId, BigDecimal amount) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.amount = amount;
+    }
+
+    // Getters
+    public Long getOrderId() { return orderId; }
+    public String getUserId() { return userId; }
+    public BigDecimal getAmount() { return amount; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+}
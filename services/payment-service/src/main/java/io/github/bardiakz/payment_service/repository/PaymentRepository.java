@@ -4,6 +4,7 @@ import io.github.bardiakz.payment_service.model.Payment;
 import io.github.bardiakz.payment_service.model.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +13,5 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(Long orderId);
     List<Payment> findByUserId(String userId);
     List<Payment> findByStatus(PaymentStatus status);
+    List<Payment> findByOrderIdIn(Collection<Long> orderIds);
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package io.github.bardiakz.payment_service.repository;
+
+import io.github.bardiakz.payment_service.model.Payment;
+import io.github.bardiakz.payment_service.model.PaymentMethod;
+import io.github.bardiakz.payment_service.model.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched payment writes. Inserts rely on the uk_payments_order_id unique index for idempotency.
+ */
+@Repository
+public class PaymentWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payments (order_id, user_id, amount, status, method, created_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CONFLICT_SQL = " ON CONFLICT (order_id) DO NOTHING RETURNING id, order_id";
+
+    private static final String FINISH_SQL =
+            "UPDATE payments SET status = ?, transaction_id = ?, failure_reason = ?, updated_at = ?, " +
+                    "outcome_published = false WHERE id = ? AND status = 'PROCESSING'";
+
+    private static final String LOCK_UNPUBLISHED_SQL =
+            "SELECT id, order_id, user_id, amount, status, method, transaction_id, failure_reason, created_at, updated_at " +
+                    "FROM payments WHERE outcome_published = false AND updated_at < ? " +
+                    "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // Renewing updated_at is the claim: other instances skip the row until the lease runs out again
+    private static final String CLAIM_STALE_SQL =
+            "UPDATE payments SET updated_at = ? WHERE id IN (" +
+                    "SELECT id FROM payments WHERE status = 'PROCESSING' AND coalesce(updated_at, created_at) < ? " +
+                    "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                    "RETURNING id, order_id, user_id, amount, method, created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert every payment whose order has none yet, in one statement.
+     * Rows go in order_id order so concurrent batches lock index entries in the same order.
+     * @return generated id per order_id; orders that already had a payment are missing
+     */
+    public Map<Long, Long> insertAllIfAbsent(List<Payment> payments) {
+        Map<Long, Long> ids = new HashMap<>();
+        if (payments.isEmpty()) {
+            return ids;
+        }
+        List<Payment> sorted = payments.stream().sorted(Comparator.comparing(Payment::getOrderId)).toList();
+        List<Object> params = new ArrayList<>(sorted.size() * 6);
+        for (Payment payment : sorted) {
+            params.add(payment.getOrderId());
+            params.add(payment.getUserId());
+            params.add(payment.getAmount());
+            params.add(payment.getStatus().name());
+            params.add(payment.getMethod().name());
+            params.add(Timestamp.valueOf(payment.getCreatedAt()));
+        }
+        String sql = INSERT_SQL + String.join(", ", Collections.nCopies(sorted.size(), INSERT_ROW)) + INSERT_CONFLICT_SQL;
+        jdbcTemplate.query(sql, rs -> {
+            ids.put(rs.getLong("order_id"), rs.getLong("id"));
+        }, params.toArray());
+        return ids;
+    }
+
+    /**
+     * Claim up to limit payments that have been PROCESSING since before the cutoff
+     * (their authorization was lost with the instance running it); rows locked by
+     * another claim are skipped
+     */
+    public List<Payment> claimStale(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(CLAIM_STALE_SQL, (rs, rowNum) -> {
+            Payment payment = new Payment(rs.getLong("order_id"), rs.getString("user_id"),
+                    rs.getBigDecimal("amount"), PaymentMethod.valueOf(rs.getString("method")));
+            payment.setId(rs.getLong("id"));
+            payment.setStatus(PaymentStatus.PROCESSING);
+            payment.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            return payment;
+        }, Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Write the outcome of each payment still in PROCESSING, as one JDBC batch
+     * @return the payments actually finished by this call (others were finished earlier)
+     */
+    public List<Payment> finishAll(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(FINISH_SQL, payments, payments.size(), (ps, payment) -> {
+            ps.setString(1, payment.getStatus().name());
+            ps.setString(2, payment.getTransactionId());
+            ps.setString(3, payment.getFailureReason());
+            ps.setTimestamp(4, now);
+            ps.setLong(5, payment.getId());
+        })[0];
+
+        List<Payment> finished = new ArrayList<>();
+        for (int i = 0; i < payments.size(); i++) {
+            if (updated[i] > 0) {
+                finished.add(payments.get(i));
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * Record that the broker confirmed the outcome events of these payments
+     */
+    public void markPublished(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(payments.size(), "?"));
+        jdbcTemplate.update("UPDATE payments SET outcome_published = true WHERE id IN (" + placeholders + ")",
+                payments.stream().map(Payment::getId).toArray());
+    }
+
+    /**
+     * Lock up to limit finished payments whose outcome was not confirmed by the broker and
+     * that finished before the cutoff; rows locked by another relay are skipped.
+     * Must run in a transaction, which holds the locks while the outcomes are re-sent.
+     */
+    public List<Payment> lockUnpublished(LocalDateTime finishedBefore, int limit) {
+        return jdbcTemplate.query(LOCK_UNPUBLISHED_SQL, (rs, rowNum) -> {
+            Payment payment = new Payment(rs.getLong("order_id"), rs.getString("user_id"),
+                    rs.getBigDecimal("amount"), PaymentMethod.valueOf(rs.getString("method")));
+            payment.setId(rs.getLong("id"));
+            payment.setStatus(PaymentStatus.valueOf(rs.getString("status")));
+            payment.setTransactionId(rs.getString("transaction_id"));
+            payment.setFailureReason(rs.getString("failure_reason"));
+            payment.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            payment.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            return payment;
+        }, Timestamp.valueOf(finishedBefore), limit);
+    }
+}
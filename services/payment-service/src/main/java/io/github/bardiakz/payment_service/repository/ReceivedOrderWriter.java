@@ -0,0 +1,46 @@
+package io.github.bardiakz.payment_service.repository;
+
+import io.github.bardiakz.payment_service.model.ReceivedOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records OrderCreated events for reconciliation; redelivered events are ignored
+ */
+@Repository
+public class ReceivedOrderWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO received_orders (order_id, user_id, amount, received_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?)";
+    private static final String INSERT_CONFLICT_SQL = " ON CONFLICT (order_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReceivedOrderWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert every order not recorded yet, in one statement
+     */
+    public void recordAll(List<ReceivedOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Object> params = new ArrayList<>(orders.size() * 4);
+        for (ReceivedOrder order : orders) {
+            params.add(order.getOrderId());
+            params.add(order.getUserId());
+            params.add(order.getAmount());
+            params.add(Timestamp.valueOf(order.getReceivedAt()));
+        }
+        String sql = INSERT_SQL + String.join(", ", Collections.nCopies(orders.size(), INSERT_ROW)) + INSERT_CONFLICT_SQL;
+        jdbcTemplate.update(sql, params.toArray());
+    }
+}
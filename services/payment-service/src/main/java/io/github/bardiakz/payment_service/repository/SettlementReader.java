@@ -0,0 +1,86 @@
+package io.github.bardiakz.payment_service.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Reads one day of orders and payments side by side through a server-side cursor,
+ * so a day with millions of rows is streamed in fetch-size chunks rather than loaded.
+ * Orders belong to the day they were received; payments without a received order
+ * (e.g. created before orders were recorded) to the day they were created.
+ */
+@Repository
+public class SettlementReader {
+
+    private static final String DAY_SQL =
+            "SELECT o.order_id, p.id AS payment_id, COALESCE(p.user_id, o.user_id) AS user_id, " +
+                    "o.amount AS order_amount, p.amount AS payment_amount, p.status, p.transaction_id, " +
+                    "p.failure_reason, o.received_at, p.updated_at AS finished_at " +
+                    "FROM received_orders o LEFT JOIN payments p ON p.order_id = o.order_id " +
+                    "WHERE o.received_at >= ? AND o.received_at < ? " +
+                    "UNION ALL " +
+                    "SELECT p.order_id, p.id, p.user_id, NULL, p.amount, p.status, p.transaction_id, " +
+                    "p.failure_reason, NULL, p.updated_at " +
+                    "FROM payments p " +
+                    "WHERE p.created_at >= ? AND p.created_at < ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM received_orders o WHERE o.order_id = p.order_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SettlementReader(DataSource dataSource,
+                            @Value("${payment.settlement.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Pass every line of the day to the consumer. PostgreSQL only uses a cursor inside
+     * a transaction, so callers must run this in one.
+     */
+    public void forEachLine(LocalDate day, Consumer<SettlementLine> consumer) {
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        jdbcTemplate.query(DAY_SQL, rs -> {
+            consumer.accept(new SettlementLine(
+                    rs.getLong("order_id"),
+                    rs.getObject("payment_id", Long.class),
+                    rs.getString("user_id"),
+                    rs.getBigDecimal("order_amount"),
+                    rs.getBigDecimal("payment_amount"),
+                    rs.getString("status"),
+                    rs.getString("transaction_id"),
+                    rs.getString("failure_reason"),
+                    toLocalDateTime(rs.getTimestamp("received_at")),
+                    toLocalDateTime(rs.getTimestamp("finished_at"))));
+        }, from, to, from, to);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * An order and its payment; the order side is empty for payments without a received
+     * order, the payment side for orders that were never charged
+     */
+    public record SettlementLine(
+            Long orderId,
+            Long paymentId,
+            String userId,
+            BigDecimal orderAmount,
+            BigDecimal paymentAmount,
+            String paymentStatus,
+            String transactionId,
+            String failureReason,
+            LocalDateTime receivedAt,
+            LocalDateTime finishedAt
+    ) {}
+}
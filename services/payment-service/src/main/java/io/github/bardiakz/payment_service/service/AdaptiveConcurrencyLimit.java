@@ -0,0 +1,48 @@
+package io.github.bardiakz.payment_service.service;
+
+import java.time.Duration;
+
+/**
+ * AIMD concurrency limit. Each fast, successful call adds 1/limit (about +1 per
+ * limit's worth of calls) while the limit is actually in use; each slow or failed
+ * call multiplies it by the backoff ratio. A gateway that slows down therefore gets
+ * fewer concurrent calls quickly, and regains them gradually once it recovers.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private double limit;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    double backoffRatio, Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Adjust the limit after a call finished
+     * @param inFlight calls in flight when this one finished, itself included
+     */
+    public synchronized void onSample(long latencyNanos, boolean failed, int inFlight) {
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            // Only grow while at least half the limit is used, so an idle period cannot inflate it
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+}
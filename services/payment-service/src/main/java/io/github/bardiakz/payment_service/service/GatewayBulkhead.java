@@ -0,0 +1,143 @@
+package io.github.bardiakz.payment_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead in front of the payment gateway. At most AdaptiveConcurrencyLimit calls run
+ * at once and the rest wait in a queue. PaymentEventHandler asks tryAdmit before taking
+ * on a batch and defers the batch when the queue is already full. A slow gateway then
+ * backs work up in the broker instead of in this service's memory.
+ */
+@Primary
+@Component
+public class GatewayBulkhead implements PaymentGateway {
+
+    private final PaymentGateway delegate;
+    private final AdaptiveConcurrencyLimit limit;
+    private final int maxQueued;
+    private final Queue<Waiting> waiting = new ArrayDeque<>();
+    private final Counter rejectedCounter;
+    private final Timer latencyTimer;
+
+    private int inFlight = 0;
+
+    // The concrete gateway is injected directly: this bean is the PaymentGateway everyone else sees
+    public GatewayBulkhead(SimulatedPaymentGateway delegate,
+                           MeterRegistry meterRegistry,
+                           @Value("${payment.gateway.bulkhead.initial-limit:20}") int initialLimit,
+                           @Value("${payment.gateway.bulkhead.min-limit:2}") int minLimit,
+                           @Value("${payment.gateway.bulkhead.max-limit:200}") int maxLimit,
+                           @Value("${payment.gateway.bulkhead.backoff-ratio:0.9}") double backoffRatio,
+                           @Value("${payment.gateway.bulkhead.latency-threshold:PT2S}") Duration latencyThreshold,
+                           @Value("${payment.gateway.bulkhead.max-queued:500}") int maxQueued) {
+        this.delegate = delegate;
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold);
+        this.maxQueued = maxQueued;
+
+        Gauge.builder("payment.gateway.in-flight", this, GatewayBulkhead::inFlight)
+                .description("Gateway authorizations running")
+                .register(meterRegistry);
+        Gauge.builder("payment.gateway.queued", this, GatewayBulkhead::queued)
+                .description("Gateway authorizations waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("payment.gateway.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("payment.gateway.rejected")
+                .description("Payments deferred because the gateway queue was full")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("payment.gateway.latency")
+                .description("Gateway authorization latency")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve queue room for a batch of payments
+     * @return false (and counts the payments as rejected) if the queue cannot take them;
+     * an empty queue always admits, so a batch larger than max-queued is not starved
+     */
+    public synchronized boolean tryAdmit(int payments) {
+        if (waiting.isEmpty() || waiting.size() + payments <= maxQueued) {
+            return true;
+        }
+        rejectedCounter.increment(payments);
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> authorize(Authorization authorization) {
+        CompletableFuture<GatewayResult> result = new CompletableFuture<>();
+        synchronized (this) {
+            if (inFlight >= limit.limit()) {
+                waiting.add(new Waiting(authorization, result));
+                return result;
+            }
+            inFlight++;
+        }
+        dispatch(new Waiting(authorization, result));
+        return result;
+    }
+
+    // Refunds are rare compensations and bypass the limit
+    @Override
+    public CompletableFuture<GatewayResult> refund(Long paymentId, String transactionId, BigDecimal amount) {
+        return delegate.refund(paymentId, transactionId, amount);
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return waiting.size();
+    }
+
+    private void dispatch(Waiting call) {
+        long start = System.nanoTime();
+        CompletableFuture<GatewayResult> response;
+        try {
+            response = delegate.authorize(call.authorization());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((gatewayResult, e) -> {
+            long latency = System.nanoTime() - start;
+            latencyTimer.record(latency, TimeUnit.NANOSECONDS);
+            release(latency, e != null).forEach(this::dispatch);
+            if (e != null) {
+                call.result().completeExceptionally(e);
+            } else {
+                call.result().complete(gatewayResult);
+            }
+        });
+    }
+
+    // Free the slot, feed the limit, and take as many waiting calls as the new limit allows
+    private synchronized List<Waiting> release(long latencyNanos, boolean failed) {
+        limit.onSample(latencyNanos, failed, inFlight);
+        inFlight--;
+        List<Waiting> next = new ArrayList<>();
+        while (inFlight < limit.limit() && !waiting.isEmpty()) {
+            next.add(waiting.poll());
+            inFlight++;
+        }
+        return next;
+    }
+
+    private record Waiting(Authorization authorization, CompletableFuture<GatewayResult> result) {}
+}
@@ -0,0 +1,48 @@
+package io.github.bardiakz.payment_service.service;
+
+import io.github.bardiakz.payment_service.model.Payment;
+import io.github.bardiakz.payment_service.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * External payment provider. Authorization is asynchronous so that a slow provider
+ * never holds a listener thread or a database connection.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Authorize the payment. The future completes with the provider's decision, or
+     * exceptionally if the provider could not be reached.
+     */
+    CompletableFuture<GatewayResult> authorize(Authorization authorization);
+
+    /**
+     * Refund a completed charge in full. paymentId is the idempotency key here too.
+     */
+    CompletableFuture<GatewayResult> refund(Long paymentId, String transactionId, BigDecimal amount);
+
+    /**
+     * What the provider needs to charge. paymentId doubles as the idempotency key,
+     * so authorizing the same payment twice (e.g. after a restart) charges once.
+     */
+    record Authorization(Long paymentId, Long orderId, String userId, BigDecimal amount, PaymentMethod method) {
+
+        public static Authorization of(Payment payment) {
+            return new Authorization(payment.getId(), payment.getOrderId(), payment.getUserId(),
+                    payment.getAmount(), payment.getMethod());
+        }
+    }
+
+    record GatewayResult(boolean approved, String transactionId, String failureReason) {
+
+        public static GatewayResult approved(String transactionId) {
+            return new GatewayResult(true, transactionId, null);
+        }
+
+        public static GatewayResult declined(String reason) {
+            return new GatewayResult(false, null, reason);
+        }
+    }
+}
@@ -4,12 +4,25 @@ import io.github.bardiakz.payment_service.dto.*;
 import io.github.bardiakz.payment_service.event.PaymentEventPublisher;
 import io.github.bardiakz.payment_service.model.*;
 import io.github.bardiakz.payment_service.repository.PaymentRepository;
+import io.github.bardiakz.payment_service.repository.PaymentWriter;
+import io.github.bardiakz.payment_service.repository.ReceivedOrderWriter;
+import io.github.bardiakz.payment_service.service.PaymentGateway.GatewayResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,71 +31,210 @@ public class PaymentService {
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
     private final PaymentRepository paymentRepository;
+    private final PaymentWriter paymentWriter;
+    private final ReceivedOrderWriter receivedOrderWriter;
+    private final RecentPayments recentPayments;
     private final PaymentEventPublisher eventPublisher;
+    private final PaymentGateway paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration processingLease;
+    private final int resumeBatchSize;
 
     public PaymentService(PaymentRepository paymentRepository,
-                          PaymentEventPublisher eventPublisher) {
+                          PaymentWriter paymentWriter,
+                          ReceivedOrderWriter receivedOrderWriter,
+                          RecentPayments recentPayments,
+                          PaymentEventPublisher eventPublisher,
+                          PaymentGateway paymentGateway,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${payment.processing.lease:PT2M}") Duration processingLease,
+                          @Value("${payment.processing.resume-batch-size:100}") int resumeBatchSize) {
         this.paymentRepository = paymentRepository;
+        this.paymentWriter = paymentWriter;
+        this.receivedOrderWriter = receivedOrderWriter;
+        this.recentPayments = recentPayments;
         this.eventPublisher = eventPublisher;
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.processingLease = processingLease;
+        this.resumeBatchSize = resumeBatchSize;
     }
 
     /**
      * Handle OrderCreated event from Marketplace
      * Saga Step 2 (T2): Process payment
      */
-    @Transactional
-    public void handleOrderCreated(Long orderId, String userId, java.math.BigDecimal amount) {
-        log.info("Handling OrderCreated for order: {} - Processing payment", orderId);
+    public CompletableFuture<Void> handleOrderCreated(Long orderId, String userId, BigDecimal amount) {
+        return handleOrdersCreated(List.of(new OrderCreated(orderId, userId, amount)));
+    }
 
-        // Create payment record
-        Payment payment = new Payment(orderId, userId, amount, PaymentMethod.CREDIT_CARD);
-        payment.setStatus(PaymentStatus.PROCESSING);
+    /**
+     * Handle a batch of OrderCreated events from Marketplace
+     * Only the PROCESSING inserts (one statement) run on the listener thread; authorization
+     * continues asynchronously and the batch's outcomes are saved and published together.
+     * A redelivered event never creates a second payment: it re-publishes the outcome
+     * of the existing one instead (Marketplace ignores events it already applied).
+     */
+    public CompletableFuture<Void> handleOrdersCreated(List<OrderCreated> orders) {
+        List<Payment> duplicates = new ArrayList<>();
+        Map<Long, Payment> fresh = new LinkedHashMap<>();
+        for (OrderCreated order : orders) {
+            Payment recent = recentPayments.get(order.orderId());
+            if (recent != null) {
+                duplicates.add(recent);
+            } else if (!fresh.containsKey(order.orderId())) {
+                Payment payment = new Payment(order.orderId(), order.userId(), order.amount(), PaymentMethod.CREDIT_CARD);
+                payment.setStatus(PaymentStatus.PROCESSING);
+                fresh.put(order.orderId(), payment);
+            }
+        }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        List<Payment> created = new ArrayList<>();
+        if (!fresh.isEmpty()) {
+            receivedOrderWriter.recordAll(fresh.values().stream()
+                    .map(payment -> new ReceivedOrder(payment.getOrderId(), payment.getUserId(), payment.getAmount()))
+                    .toList());
+            Map<Long, Long> ids = paymentWriter.insertAllIfAbsent(List.copyOf(fresh.values()));
+            List<Long> conflicting = new ArrayList<>();
+            for (Payment payment : fresh.values()) {
+                Long id = ids.get(payment.getOrderId());
+                if (id == null) {
+                    conflicting.add(payment.getOrderId());
+                } else {
+                    payment.setId(id);
+                    recentPayments.remember(payment);
+                    created.add(payment);
+                }
+            }
+            if (!conflicting.isEmpty()) {
+                for (Payment existing : paymentRepository.findByOrderIdIn(conflicting)) {
+                    recentPayments.remember(existing);
+                    duplicates.add(existing);
+                }
+            }
+        }
 
-        // Simulate payment processing
-        boolean paymentSuccess = processPayment(savedPayment);
+        if (!duplicates.isEmpty()) {
+            log.info("Duplicate OrderCreated for {} orders - re-publishing finished payments", duplicates.size());
+            // Payments still being authorized publish when the gateway answers
+            try {
+                eventPublisher.publishOutcomes(duplicates.stream().filter(Payment::isFinished).toList());
+            } catch (Exception e) {
+                // Outcomes that were never confirmed are still re-sent by OutcomeRelay
+                log.warn("Failed to re-publish {} payment outcomes", duplicates.size(), e);
+            }
+        }
+        log.info("Processing {} new payments", created.size());
+        return authorize(created);
+    }
 
-        if (paymentSuccess) {
-            // Payment successful - generate transaction ID
-            String transactionId = UUID.randomUUID().toString();
-            savedPayment.markAsCompleted(transactionId);
-            paymentRepository.save(savedPayment);
+    /**
+     * Re-authorize payments stuck in PROCESSING for longer than the lease: their instance
+     * died or failed to record the outcome, and their OrderCreated message was already
+     * acknowledged, so nothing else would finish them. Payments another instance is still
+     * authorizing are younger than the lease and left alone.
+     */
+    @Scheduled(initialDelayString = "${payment.processing.resume-interval-ms:30000}",
+            fixedDelayString = "${payment.processing.resume-interval-ms:30000}")
+    public void resumeProcessing() {
+        try {
+            List<Payment> stale = paymentWriter.claimStale(LocalDateTime.now().minus(processingLease), resumeBatchSize);
+            if (!stale.isEmpty()) {
+                log.info("Resuming authorization of {} payments stuck in PROCESSING", stale.size());
+                authorize(stale);
+            }
+        } catch (Exception e) {
+            log.error("Failed to resume payments stuck in PROCESSING", e);
+        }
+    }
 
-            // Publish PaymentCompleted event
-            eventPublisher.publishPaymentCompleted(savedPayment);
+    private CompletableFuture<Void> authorize(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // A gateway error says nothing about whether the charge went through: the payment stays
+        // PROCESSING and resumeProcessing authorizes it again (paymentId is the idempotency key)
+        List<CompletableFuture<Payment>> outcomes = payments.stream()
+                .map(payment -> paymentGateway.authorize(PaymentGateway.Authorization.of(payment))
+                        .thenApply(result -> finished(payment, result))
+                        .exceptionally(e -> {
+                            log.error("Payment gateway error for order {}, left PROCESSING", payment.getOrderId(), e);
+                            return null;
+                        }))
+                .toList();
 
-            log.info("Payment completed for order: {} with transaction: {}",
-                    orderId, transactionId);
-        } else {
-            // Payment failed
-            savedPayment.markAsFailed("Insufficient funds");
-            paymentRepository.save(savedPayment);
+        return CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new))
+                .thenRun(() -> completePayments(outcomes.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Objects::nonNull)
+                        .toList()))
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        // Stay PROCESSING and are picked up again by resumeProcessing once the lease runs out
+                        log.error("Failed to record outcome of {} payments", payments.size(), e);
+                    }
+                });
+    }
 
-            // Publish PaymentFailed event (triggers compensation in Marketplace)
-            eventPublisher.publishPaymentFailed(savedPayment);
+    /**
+     * Save the batch's outcomes in one short transaction (a single JDBC batch), then
+     * publish the saga events together. Outcomes the broker did not confirm stay
+     * unpublished and are re-sent by OutcomeRelay.
+     */
+    void completePayments(List<Payment> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        List<Payment> finished = transactionTemplate.execute(status -> paymentWriter.finishAll(outcomes));
+        finished.forEach(recentPayments::remember);
+        try {
+            eventPublisher.publishOutcomes(finished);
+            paymentWriter.markPublished(finished);
+        } catch (Exception e) {
+            log.warn("Outcome events of {} payments not confirmed, left to the outcome relay", finished.size(), e);
+        }
 
-            log.warn("Payment failed for order: {}", orderId);
+        long completed = finished.stream().filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED).count();
+        log.info("Payments finished: {} completed, {} failed", completed, finished.size() - completed);
+    }
+
+    // A new instance: the PROCESSING one may already be shared through RecentPayments
+    private static Payment finished(Payment processing, GatewayResult result) {
+        Payment payment = new Payment(processing.getOrderId(), processing.getUserId(),
+                processing.getAmount(), processing.getMethod());
+        payment.setId(processing.getId());
+        payment.setCreatedAt(processing.getCreatedAt());
+        if (result.approved()) {
+            payment.markAsCompleted(result.transactionId());
+        } else {
+            payment.markAsFailed(result.failureReason());
         }
+        return payment;
     }
 
     /**
-     * Simulate payment processing with external payment provider
-     * In production, this would call real payment gateway APIs
+     * Compensation for a charge Marketplace can no longer fulfil (the order expired, was
+     * cancelled or failed before the payment completed). Waits for the gateway, so a
+     * failed refund propagates and the request is redelivered.
      */
-    private boolean processPayment(Payment payment) {
-        try {
-            // Simulate external payment API call delay
-            Thread.sleep(1000);
-
-            // 90% success rate for simulation
-            // In production: call actual payment provider API
-            return Math.random() > 0.1;
+    public void refundPayment(Long orderId, String reason) {
+        Payment payment = paymentRepository.findByOrderId(orderId).orElse(null);
+        if (payment == null || payment.getStatus() != PaymentStatus.COMPLETED) {
+            log.info("Nothing to refund for order {} (payment {})", orderId,
+                    payment == null ? "missing" : payment.getStatus());
+            return;
+        }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
+        GatewayResult result = paymentGateway.refund(payment.getId(), payment.getTransactionId(), payment.getAmount())
+                .join();
+        if (!result.approved()) {
+            throw new IllegalStateException("Refund declined for payment " + payment.getId() + ": " + result.failureReason());
         }
+
+        payment.markAsRefunded(reason);
+        paymentRepository.save(payment);
+        recentPayments.remember(payment);
+        log.info("Refunded payment {} for order {}: {}", payment.getId(), orderId, reason);
     }
 
     public List<PaymentResponse> getMyPayments(String userId) {
@@ -0,0 +1,41 @@
+package io.github.bardiakz.payment_service.service;
+
+import io.github.bardiakz.payment_service.model.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU of the latest payment per order, checked before touching the database.
+ * Broker redeliveries arrive shortly after the original, so a few thousand entries
+ * answer nearly all of them; a miss falls through to the unique index on order_id.
+ */
+@Component
+public class RecentPayments {
+
+    private final Map<Long, Payment> byOrderId;
+
+    public RecentPayments(@Value("${payment.dedup.recent-orders:10000}") int capacity) {
+        this.byOrderId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Payment> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized Payment get(Long orderId) {
+        return byOrderId.get(orderId);
+    }
+
+    /**
+     * Remember the payment's latest state (callers must not modify it afterwards).
+     * A finished payment is never replaced by a stale PROCESSING read of itself.
+     */
+    public synchronized void remember(Payment payment) {
+        byOrderId.merge(payment.getOrderId(), payment,
+                (current, update) -> current.isFinished() && !update.isFinished() ? current : update);
+    }
+}
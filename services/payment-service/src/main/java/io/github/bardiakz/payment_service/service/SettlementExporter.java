@@ -0,0 +1,167 @@
+package io.github.bardiakz.payment_service.service;
+
+import io.github.bardiakz.payment_service.repository.SettlementReader;
+import io.github.bardiakz.payment_service.repository.SettlementReader.SettlementLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Daily settlement report: every order received and every payment made on a day,
+ * reconciled line by line and written as CSV. Rows are streamed from the database
+ * cursor straight to the writer, so memory use does not grow with the day's volume.
+ */
+@Service
+public class SettlementExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementExporter.class);
+
+    static final String HEADER = "order_id,payment_id,user_id,order_amount,payment_amount,payment_status," +
+            "transaction_id,failure_reason,received_at,finished_at,reconciliation";
+
+    private final SettlementReader settlementReader;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+
+    public SettlementExporter(SettlementReader settlementReader,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${payment.settlement.directory:./settlements}") Path directory) {
+        this.settlementReader = settlementReader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = directory;
+    }
+
+    /**
+     * Write yesterday's settlement file shortly after midnight
+     */
+    @Scheduled(cron = "${payment.settlement.cron:0 15 0 * * *}")
+    public void exportYesterday() {
+        LocalDate day = LocalDate.now().minusDays(1);
+        try {
+            SettlementSummary summary = exportToFile(day);
+            log.info("Settlement for {}: {} lines, settled {}, {}",
+                    day, summary.lines(), summary.settledAmount(), summary.counts());
+        } catch (Exception e) {
+            log.error("Settlement export failed for {}", day, e);
+        }
+    }
+
+    /**
+     * Write the day's report to settlement-{day}.csv in the settlement directory.
+     * The file is written under a temporary name and moved into place when complete.
+     */
+    public SettlementSummary exportToFile(LocalDate day) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve("settlement-" + day + ".csv");
+        Path partial = Files.createTempFile(directory, "settlement-" + day, ".partial");
+        try {
+            SettlementSummary summary;
+            try (Writer writer = Files.newBufferedWriter(partial)) {
+                summary = export(day, writer);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return summary;
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * Stream the day's report as CSV to the writer
+     */
+    public SettlementSummary export(LocalDate day, Writer writer) throws IOException {
+        Map<Reconciliation, Long> counts = new EnumMap<>(Reconciliation.class);
+        BigDecimal[] settled = {BigDecimal.ZERO};
+
+        writer.write(HEADER);
+        writer.write('\n');
+        try {
+            transactionTemplate.executeWithoutResult(status -> settlementReader.forEachLine(day, line -> {
+                Reconciliation reconciliation = reconcile(line);
+                counts.merge(reconciliation, 1L, Long::sum);
+                if (reconciliation == Reconciliation.MATCHED) {
+                    settled[0] = settled[0].add(line.paymentAmount());
+                }
+                try {
+                    writeLine(writer, line, reconciliation);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long lines = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new SettlementSummary(day, lines, counts, settled[0]);
+    }
+
+    static Reconciliation reconcile(SettlementLine line) {
+        if (line.paymentId() == null) {
+            return Reconciliation.MISSING_PAYMENT;
+        }
+        if (line.orderAmount() == null) {
+            return Reconciliation.UNKNOWN_ORDER;
+        }
+        if (line.orderAmount().compareTo(line.paymentAmount()) != 0) {
+            return Reconciliation.AMOUNT_MISMATCH;
+        }
+        return switch (line.paymentStatus()) {
+            case "COMPLETED" -> Reconciliation.MATCHED;
+            case "FAILED" -> Reconciliation.DECLINED;
+            case "REFUNDED" -> Reconciliation.REFUNDED;
+            default -> Reconciliation.PENDING;
+        };
+    }
+
+    private static void writeLine(Writer writer, SettlementLine line, Reconciliation reconciliation) throws IOException {
+        Object[] values = {line.orderId(), line.paymentId(), line.userId(), line.orderAmount(), line.paymentAmount(),
+                line.paymentStatus(), line.transactionId(), line.failureReason(), line.receivedAt(), line.finishedAt(),
+                reconciliation};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csv(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    static String csv(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    public enum Reconciliation {
+        MATCHED,          // charged the ordered amount
+        DECLINED,         // payment failed, Marketplace compensated the order
+        REFUNDED,
+        PENDING,          // still being authorized
+        AMOUNT_MISMATCH,  // charged amount differs from the order total
+        MISSING_PAYMENT,  // order received but never charged
+        UNKNOWN_ORDER     // payment without a received order
+    }
+
+    public record SettlementSummary(LocalDate day, long lines, Map<Reconciliation, Long> counts,
+                                    BigDecimal settledAmount) {}
+}
@@ -0,0 +1,75 @@
+package io.github.bardiakz.payment_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a payment provider: each authorization takes the configured latency
+ * and succeeds with the configured probability. Calls run on virtual threads, the way a
+ * blocking HTTP client to a real provider would, so in-flight authorizations cost no
+ * platform threads.
+ */
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway, AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration latency;
+    private final double successRate;
+    private final Duration shutdownTimeout;
+
+    public SimulatedPaymentGateway(@Value("${payment.gateway.simulated.latency:PT1S}") Duration latency,
+                                   @Value("${payment.gateway.simulated.success-rate:0.9}") double successRate,
+                                   @Value("${payment.gateway.simulated.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.latency = latency;
+        this.successRate = successRate;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> authorize(Authorization authorization) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Authorization interrupted for payment " + authorization.paymentId(), e);
+            }
+            return ThreadLocalRandom.current().nextDouble() < successRate
+                    ? GatewayResult.approved(UUID.randomUUID().toString())
+                    : GatewayResult.declined("Insufficient funds");
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> refund(Long paymentId, String transactionId, BigDecimal amount) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Refund interrupted for payment " + paymentId, e);
+            }
+            return GatewayResult.approved(transactionId);
+        }, executor);
+    }
+
+    /**
+     * Let in-flight calls finish, so a graceful shutdown does not turn them into gateway errors
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
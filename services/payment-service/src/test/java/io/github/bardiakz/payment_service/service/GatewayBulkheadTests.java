@@ -0,0 +1,94 @@
+package io.github.bardiakz.payment_service.service;
+
+import io.github.bardiakz.payment_service.service.PaymentGateway.Authorization;
+import io.github.bardiakz.payment_service.service.PaymentGateway.GatewayResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GatewayBulkheadTests {
+
+	private final List<CompletableFuture<GatewayResult>> calls = new ArrayList<>();
+
+	@Test
+	void callsBeyondTheLimitWaitForAFreeSlot() {
+		GatewayBulkhead bulkhead = bulkhead(2, 10);
+
+		CompletableFuture<GatewayResult> first = bulkhead.authorize(authorization(1L));
+		bulkhead.authorize(authorization(2L));
+		CompletableFuture<GatewayResult> third = bulkhead.authorize(authorization(3L));
+
+		assertEquals(2, calls.size());
+		assertEquals(2, bulkhead.inFlight());
+		assertEquals(1, bulkhead.queued());
+
+		calls.getFirst().complete(GatewayResult.approved("tx-1"));
+
+		assertTrue(first.isDone());
+		assertEquals(3, calls.size());
+		assertEquals(0, bulkhead.queued());
+
+		calls.get(2).complete(GatewayResult.declined("Insufficient funds"));
+		assertFalse(third.join().approved());
+	}
+
+	@Test
+	void fullQueueRejectsNewBatches() {
+		GatewayBulkhead bulkhead = bulkhead(1, 2);
+		for (long orderId = 1; orderId <= 3; orderId++) {
+			bulkhead.authorize(authorization(orderId));
+		}
+
+		assertEquals(2, bulkhead.queued());
+		assertFalse(bulkhead.tryAdmit(1));
+
+		calls.getFirst().complete(GatewayResult.approved("tx-1"));
+		assertTrue(bulkhead.tryAdmit(1));
+	}
+
+	@Test
+	void slowOrFailingCallsShrinkTheLimit() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20, 0.5, Duration.ofSeconds(1));
+
+		limit.onSample(Duration.ofSeconds(3).toNanos(), false, 10);
+		assertEquals(5, limit.limit());
+		limit.onSample(Duration.ofMillis(10).toNanos(), true, 5);
+		assertEquals(2, limit.limit());
+		limit.onSample(Duration.ofMillis(10).toNanos(), true, 2);
+		assertEquals(2, limit.limit());
+
+		// Fast calls grow it back by about one per limit's worth of calls
+		for (int i = 0; i < 6; i++) {
+			limit.onSample(Duration.ofMillis(10).toNanos(), false, 2);
+		}
+		assertEquals(4, limit.limit());
+	}
+
+	private GatewayBulkhead bulkhead(int limit, int maxQueued) {
+		SimulatedPaymentGateway gateway = mock(SimulatedPaymentGateway.class);
+		when(gateway.authorize(any())).thenAnswer(invocation -> {
+			CompletableFuture<GatewayResult> call = new CompletableFuture<>();
+			calls.add(call);
+			return call;
+		});
+		return new GatewayBulkhead(gateway, new SimpleMeterRegistry(),
+				limit, 1, limit, 0.9, Duration.ofSeconds(2), maxQueued);
+	}
+
+	private static Authorization authorization(Long orderId) {
+		return new Authorization(orderId + 100, orderId, "user-" + orderId, BigDecimal.TEN, null);
+	}
+
+}
@@ -0,0 +1,214 @@
+package io.github.bardiakz.payment_service.service;
+
+import io.github.bardiakz.payment_service.dto.OrderCreated;
+import io.github.bardiakz.payment_service.event.PaymentEventPublisher;
+import io.github.bardiakz.payment_service.model.Payment;
+import io.github.bardiakz.payment_service.model.PaymentMethod;
+import io.github.bardiakz.payment_service.model.PaymentStatus;
+import io.github.bardiakz.payment_service.repository.PaymentRepository;
+import io.github.bardiakz.payment_service.repository.PaymentWriter;
+import io.github.bardiakz.payment_service.repository.ReceivedOrderWriter;
+import io.github.bardiakz.payment_service.service.PaymentGateway.GatewayResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceTests {
+
+	private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+	private final PaymentWriter paymentWriter = mock(PaymentWriter.class);
+	private final PaymentEventPublisher eventPublisher = mock(PaymentEventPublisher.class);
+	private final PaymentGateway paymentGateway = mock(PaymentGateway.class);
+	private PaymentService paymentService;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		paymentService = new PaymentService(paymentRepository, paymentWriter, mock(ReceivedOrderWriter.class),
+				new RecentPayments(100), eventPublisher, paymentGateway, mock(PlatformTransactionManager.class),
+				Duration.ofMinutes(2), 100);
+		// Every order is new; payment ids are order ids + 100
+		when(paymentWriter.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+			Map<Long, Long> ids = new HashMap<>();
+			for (Payment payment : (List<Payment>) invocation.getArgument(0)) {
+				ids.put(payment.getOrderId(), payment.getOrderId() + 100);
+			}
+			return ids;
+		});
+		when(paymentWriter.finishAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void listenerReturnsBeforeGatewayAnswers() {
+		CompletableFuture<GatewayResult> pending = new CompletableFuture<>();
+		when(paymentGateway.authorize(any())).thenReturn(pending);
+
+		CompletableFuture<Void> done = paymentService.handleOrderCreated(1L, "user-1", BigDecimal.TEN);
+
+		assertFalse(done.isDone());
+		verify(eventPublisher, never()).publishOutcomes(anyList());
+
+		pending.complete(GatewayResult.approved("tx-1"));
+
+		Payment payment = publishedOutcomes().getFirst();
+		assertEquals(101L, payment.getId());
+		assertEquals(PaymentStatus.COMPLETED, payment.getStatus());
+		assertEquals("tx-1", payment.getTransactionId());
+	}
+
+	@Test
+	void batchIsInsertedFinishedAndPublishedTogether() {
+		when(paymentGateway.authorize(any()))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.approved("tx-1")))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.declined("Insufficient funds")));
+
+		paymentService.handleOrdersCreated(List.of(order(1L), order(2L), order(1L))).join();
+
+		verify(paymentWriter, times(1)).insertAllIfAbsent(anyList());
+		verify(paymentWriter, times(1)).finishAll(anyList());
+		List<Payment> outcomes = publishedOutcomes();
+		assertEquals(2, outcomes.size());
+		assertEquals(PaymentStatus.COMPLETED, outcomes.get(0).getStatus());
+		assertEquals(PaymentStatus.FAILED, outcomes.get(1).getStatus());
+	}
+
+	@Test
+	void gatewayErrorsLeaveThePaymentProcessing() {
+		when(paymentGateway.authorize(any()))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.approved("tx-1")))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+
+		paymentService.handleOrdersCreated(List.of(order(1L), order(2L))).join();
+
+		// The charge may have gone through; resumeProcessing asks the gateway again after the lease
+		List<Payment> outcomes = publishedOutcomes();
+		assertEquals(1, outcomes.size());
+		assertEquals(1L, outcomes.getFirst().getOrderId());
+	}
+
+	@Test
+	void redeliveredOrderRepublishesWithoutWriting() {
+		when(paymentGateway.authorize(any()))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.approved("tx-1")));
+
+		paymentService.handleOrderCreated(1L, "user-1", BigDecimal.TEN).join();
+		paymentService.handleOrderCreated(1L, "user-1", BigDecimal.TEN).join();
+
+		verify(paymentWriter, times(1)).insertAllIfAbsent(anyList());
+		verify(paymentGateway, times(1)).authorize(any());
+		List<List<Payment>> published = allPublishedOutcomes();
+		assertEquals(published.get(0), published.get(1));
+	}
+
+	@Test
+	void orderPaidBeforeRestartIsNotChargedAgain() {
+		Payment existing = new Payment(1L, "user-1", BigDecimal.TEN, PaymentMethod.CREDIT_CARD);
+		existing.setId(3L);
+		existing.markAsFailed("Insufficient funds");
+		when(paymentWriter.insertAllIfAbsent(anyList())).thenReturn(Map.of());
+		when(paymentRepository.findByOrderIdIn(List.of(1L))).thenReturn(List.of(existing));
+
+		paymentService.handleOrderCreated(1L, "user-1", BigDecimal.TEN).join();
+
+		verify(paymentGateway, never()).authorize(any());
+		verify(eventPublisher).publishOutcomes(List.of(existing));
+	}
+
+	@Test
+	void paymentsFinishedEarlierAreNotPublishedAgain() {
+		when(paymentWriter.finishAll(anyList())).thenReturn(List.of());
+		when(paymentGateway.authorize(any()))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.approved("tx-2")));
+
+		paymentService.handleOrderCreated(1L, "user-1", BigDecimal.TEN).join();
+
+		assertTrue(publishedOutcomes().isEmpty());
+	}
+
+	@Test
+	void unconfirmedOutcomesAreLeftUnpublished() {
+		when(paymentGateway.authorize(any()))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.approved("tx-1")));
+		doThrow(new AmqpException("confirm timed out")).when(eventPublisher).publishOutcomes(anyList());
+
+		paymentService.handleOrderCreated(1L, "user-1", BigDecimal.TEN).join();
+
+		verify(paymentWriter, times(1)).finishAll(anyList());
+		verify(paymentWriter, never()).markPublished(anyList());
+	}
+
+	@Test
+	void onlyPaymentsPastTheLeaseAreResumed() {
+		Payment stale = new Payment(1L, "user-1", BigDecimal.TEN, PaymentMethod.CREDIT_CARD);
+		stale.setId(3L);
+		stale.setStatus(PaymentStatus.PROCESSING);
+		when(paymentWriter.claimStale(any(), eq(100))).thenReturn(List.of(stale));
+		when(paymentGateway.authorize(any()))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.approved("tx-1")));
+
+		paymentService.resumeProcessing();
+
+		ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(paymentWriter).claimStale(cutoff.capture(), eq(100));
+		assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(1)));
+		assertEquals(PaymentStatus.COMPLETED, publishedOutcomes().getFirst().getStatus());
+	}
+
+	@Test
+	void lateCompletedPaymentIsRefundedOnce() {
+		Payment payment = new Payment(1L, "user-1", BigDecimal.TEN, PaymentMethod.CREDIT_CARD);
+		payment.setId(3L);
+		payment.markAsCompleted("tx-1");
+		when(paymentRepository.findByOrderId(1L)).thenReturn(Optional.of(payment));
+		when(paymentGateway.refund(3L, "tx-1", BigDecimal.TEN))
+				.thenReturn(CompletableFuture.completedFuture(GatewayResult.approved("tx-1")));
+
+		paymentService.refundPayment(1L, "Order expired");
+		paymentService.refundPayment(1L, "Order expired");
+
+		assertEquals(PaymentStatus.REFUNDED, payment.getStatus());
+		verify(paymentGateway, times(1)).refund(3L, "tx-1", BigDecimal.TEN);
+		verify(paymentRepository, times(1)).save(payment);
+	}
+
+	private static OrderCreated order(Long orderId) {
+		return new OrderCreated(orderId, "user-" + orderId, BigDecimal.TEN);
+	}
+
+	private List<Payment> publishedOutcomes() {
+		return allPublishedOutcomes().getLast();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<Payment>> allPublishedOutcomes() {
+		ArgumentCaptor<List<Payment>> captor = ArgumentCaptor.forClass(List.class);
+		verify(eventPublisher, atLeastOnce()).publishOutcomes(captor.capture());
+		return captor.getAllValues();
+	}
+
+}
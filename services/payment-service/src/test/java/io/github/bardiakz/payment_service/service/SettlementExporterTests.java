@@ -0,0 +1,82 @@
+package io.github.bardiakz.payment_service.service;
+
+import io.github.bardiakz.payment_service.repository.SettlementReader;
+import io.github.bardiakz.payment_service.repository.SettlementReader.SettlementLine;
+import io.github.bardiakz.payment_service.service.SettlementExporter.Reconciliation;
+import io.github.bardiakz.payment_service.service.SettlementExporter.SettlementSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SettlementExporterTests {
+
+	private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+	private static final LocalDateTime AT = DAY.atTime(12, 0);
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reconcilesEveryLineAndStreamsCsv() throws Exception {
+		List<SettlementLine> lines = List.of(
+				line(1L, 11L, "10.00", "10.00", "COMPLETED", null),
+				line(2L, 12L, "10.00", "10.00", "FAILED", "Insufficient funds, retry later"),
+				line(3L, 13L, "10.00", "9.00", "COMPLETED", null),
+				line(4L, null, "10.00", null, null, null),
+				line(5L, 15L, null, "5.00", "COMPLETED", null),
+				line(6L, 16L, "7.50", "7.50", "COMPLETED", null));
+		SettlementReader reader = mock(SettlementReader.class);
+		doAnswer(invocation -> {
+			lines.forEach(invocation.<Consumer<SettlementLine>>getArgument(1));
+			return null;
+		}).when(reader).forEachLine(eq(DAY), any(Consumer.class));
+		SettlementExporter exporter = new SettlementExporter(reader, mock(PlatformTransactionManager.class), Path.of("."));
+
+		StringWriter out = new StringWriter();
+		SettlementSummary summary = exporter.export(DAY, out);
+
+		assertEquals(6, summary.lines());
+		assertEquals(new BigDecimal("17.50"), summary.settledAmount());
+		assertEquals(2L, summary.counts().get(Reconciliation.MATCHED));
+		assertEquals(1L, summary.counts().get(Reconciliation.DECLINED));
+		assertEquals(1L, summary.counts().get(Reconciliation.AMOUNT_MISMATCH));
+		assertEquals(1L, summary.counts().get(Reconciliation.MISSING_PAYMENT));
+		assertEquals(1L, summary.counts().get(Reconciliation.UNKNOWN_ORDER));
+
+		String[] csv = out.toString().split("\n");
+		assertEquals(7, csv.length);
+		assertEquals(SettlementExporter.HEADER, csv[0]);
+		assertEquals("2,12,user-2,10.00,10.00,FAILED,,\"Insufficient funds, retry later\",2026-10-17T12:00,2026-10-17T12:00,DECLINED",
+				csv[2]);
+		assertEquals("4,,user-4,10.00,,,,,2026-10-17T12:00,,MISSING_PAYMENT", csv[4]);
+	}
+
+	@Test
+	void quotesCsvValuesOnlyWhenNeeded() {
+		assertEquals("plain", SettlementExporter.csv("plain"));
+		assertEquals("\"say \"\"hi\"\"\"", SettlementExporter.csv("say \"hi\""));
+		assertEquals("", SettlementExporter.csv(null));
+	}
+
+	private static SettlementLine line(Long orderId, Long paymentId, String orderAmount, String paymentAmount,
+									   String status, String failureReason) {
+		return new SettlementLine(orderId, paymentId, "user-" + orderId,
+				orderAmount == null ? null : new BigDecimal(orderAmount),
+				paymentAmount == null ? null : new BigDecimal(paymentAmount),
+				status, null, failureReason,
+				orderAmount == null ? null : AT,
+				paymentId == null ? null : AT);
+	}
+
+}
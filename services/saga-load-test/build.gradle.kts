@@ -0,0 +1,39 @@
+plugins {
+	java
+	application
+}
+
+group = "io.github.bardiakz"
+version = "0.0.1-SNAPSHOT"
+description = "Load generator for the marketplace/payment order saga"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(25)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+dependencies {
+    // In-harness payment stub talks to RabbitMQ directly
+    implementation("com.rabbitmq:amqp-client:5.22.0")
+
+    // JSON processing
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.18.2")
+
+    // Testing
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+application {
+    mainClass = "io.github.bardiakz.saga_load_test.SagaLoadTest"
+}
+
+tasks.withType<Test> {
+	useJUnitPlatform()
+}
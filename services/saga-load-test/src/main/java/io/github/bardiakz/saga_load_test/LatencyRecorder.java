@@ -0,0 +1,37 @@
+package io.github.bardiakz.saga_load_test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects saga completion latencies and reports nearest-rank percentiles
+ */
+public class LatencyRecorder {
+
+    private final List<Long> samplesNanos = new ArrayList<>();
+
+    public synchronized void record(long nanos) {
+        samplesNanos.add(nanos);
+    }
+
+    public synchronized int count() {
+        return samplesNanos.size();
+    }
+
+    /**
+     * @param percentile in (0, 100]
+     */
+    public synchronized Duration percentile(double percentile) {
+        if (samplesNanos.isEmpty()) {
+            return Duration.ZERO;
+        }
+        long[] sorted = samplesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return Duration.ofNanos(sorted[Math.clamp(rank - 1, 0, sorted.length - 1)]);
+    }
+
+    public Duration max() {
+        return percentile(100);
+    }
+}
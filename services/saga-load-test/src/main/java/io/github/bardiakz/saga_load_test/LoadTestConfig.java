@@ -0,0 +1,66 @@
+package io.github.bardiakz.saga_load_test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Run parameters, given on the command line as --name=value (see defaults below)
+ */
+public record LoadTestConfig(
+        String marketplaceUrl,
+        String bearerToken,
+        int orders,
+        int concurrency,
+        int products,
+        int stock,
+        int quantity,
+        boolean paymentStub,
+        double failureRate,
+        String rabbitHost,
+        int rabbitPort,
+        String rabbitUser,
+        String rabbitPassword,
+        long pollIntervalMs,
+        long timeoutSeconds,
+        long settleSeconds,
+        long seed
+) {
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                values.getOrDefault("marketplace-url", "http://localhost:8085"),
+                values.get("bearer-token"),
+                Integer.parseInt(values.getOrDefault("orders", "1000")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("products", "1")),
+                Integer.parseInt(values.getOrDefault("stock", "500")),
+                Integer.parseInt(values.getOrDefault("quantity", "1")),
+                Boolean.parseBoolean(values.getOrDefault("payment-stub", "false")),
+                Double.parseDouble(values.getOrDefault("failure-rate", "0.1")),
+                values.getOrDefault("rabbit-host", "localhost"),
+                Integer.parseInt(values.getOrDefault("rabbit-port", "5672")),
+                values.getOrDefault("rabbit-user", "admin"),
+                values.getOrDefault("rabbit-password", "admin"),
+                Long.parseLong(values.getOrDefault("poll-interval-ms", "50")),
+                Long.parseLong(values.getOrDefault("timeout-seconds", "120")),
+                Long.parseLong(values.getOrDefault("settle-seconds", "2")),
+                Long.parseLong(values.getOrDefault("seed", "42"))
+        );
+        if (config.orders() <= 0 || config.concurrency() <= 0 || config.products() <= 0 || config.quantity() <= 0) {
+            throw new IllegalArgumentException("orders, concurrency, products and quantity must be positive");
+        }
+        if (config.failureRate() < 0 || config.failureRate() > 1) {
+            throw new IllegalArgumentException("failure-rate must be between 0 and 1");
+        }
+        return config;
+    }
+}
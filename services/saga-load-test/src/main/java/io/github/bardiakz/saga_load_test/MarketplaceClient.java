@@ -0,0 +1,97 @@
+package io.github.bardiakz.saga_load_test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal HTTP client for the marketplace endpoints the saga run needs.
+ * Sends X-User-Id/X-User-Role directly (marketplace-service port), or a bearer token when going through the gateway.
+ */
+public class MarketplaceClient {
+
+    public static final String SELLER_ID = "load-test-seller";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String bearerToken;
+
+    public MarketplaceClient(String baseUrl, String bearerToken) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.bearerToken = bearerToken;
+    }
+
+    public long createProduct(String name, int stock) throws IOException, InterruptedException {
+        Map<String, Object> body = Map.of(
+                "name", name,
+                "description", "Created by saga-load-test",
+                "price", 1.00,
+                "stock", stock,
+                "category", "OTHER");
+        HttpResponse<String> response = send(request("/api/marketplace/products", SELLER_ID, "FACULTY")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        if (response.statusCode() != 201) {
+            throw new IOException("Product creation failed: " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    /**
+     * @return the new order id, or -1 if the marketplace rejected the order (e.g. out of stock)
+     */
+    public long createOrder(String userId, long productId, int quantity) throws IOException, InterruptedException {
+        Map<String, Object> body = Map.of("items", List.of(Map.of("productId", productId, "quantity", quantity)));
+        HttpResponse<String> response = send(request("/api/marketplace/orders", userId, "STUDENT")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        if (response.statusCode() == 400) {
+            return -1;
+        }
+        if (response.statusCode() != 201) {
+            throw new IOException("Order creation failed: " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    public String orderStatus(long orderId) throws IOException, InterruptedException {
+        return get("/api/marketplace/orders/" + orderId).get("status").asText();
+    }
+
+    public int productStock(long productId) throws IOException, InterruptedException {
+        return get("/api/marketplace/products/" + productId).get("stock").asInt();
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request(path, SELLER_ID, "FACULTY").GET());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " failed: " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder request(String path, String userId, String role) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("X-User-Id", userId)
+                .header("X-User-Role", role);
+        if (bearerToken != null) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.bardiakz.saga_load_test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.DeliverCallback;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for payment-service: answers every OrderCreated at once with PaymentCompleted
+ * or PaymentFailed, so the run measures the marketplace side of the saga alone.
+ * payment-service must be stopped while the stub runs, otherwise each order is paid twice.
+ */
+public class PaymentStub implements AutoCloseable {
+
+    private static final String MARKETPLACE_EXCHANGE = "marketplace.events";
+    private static final String PAYMENT_EXCHANGE = "payment.events";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final double failureRate;
+    private final long seed;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private Connection connection;
+    private Channel channel;
+
+    public PaymentStub(double failureRate, long seed) {
+        this.failureRate = failureRate;
+        this.seed = seed;
+    }
+
+    public void start(String host, int port, String user, String password) throws IOException, TimeoutException {
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(host);
+        factory.setPort(port);
+        factory.setUsername(user);
+        factory.setPassword(password);
+        connection = factory.newConnection("saga-load-test-payment-stub");
+        channel = connection.createChannel();
+
+        channel.exchangeDeclare(MARKETPLACE_EXCHANGE, "topic", true);
+        channel.exchangeDeclare(PAYMENT_EXCHANGE, "topic", true);
+        String queue = channel.queueDeclare().getQueue(); // exclusive, auto-delete
+        channel.queueBind(queue, MARKETPLACE_EXCHANGE, "order.created");
+
+        DeliverCallback onOrderCreated = (tag, delivery) -> reply(objectMapper.readTree(delivery.getBody()));
+        channel.basicConsume(queue, true, onOrderCreated, tag -> { });
+    }
+
+    public long completed() {
+        return completed.get();
+    }
+
+    public long failed() {
+        return failed.get();
+    }
+
+    // The outcome depends only on the seed and the order id, so reruns fail the same orders
+    private void reply(JsonNode orderCreated) throws IOException {
+        long orderId = orderCreated.get("orderId").asLong();
+        boolean fail = new Random(seed ^ orderId).nextDouble() < failureRate;
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", fail ? "PaymentFailed" : "PaymentCompleted");
+        event.put("paymentId", UUID.nameUUIDFromBytes(("stub-" + orderId).getBytes(StandardCharsets.UTF_8)).toString());
+        event.put("orderId", orderId);
+        event.put("userId", orderCreated.path("userId").asText());
+        event.put("amount", orderCreated.path("totalAmount").decimalValue());
+        event.put("timestamp", System.currentTimeMillis());
+        if (fail) {
+            event.put("reason", "Declined by load-test payment stub");
+        } else {
+            event.put("transactionId", "STUB-" + orderId);
+        }
+
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType("application/json")
+                .contentEncoding("UTF-8")
+                .headers(Map.of("__TypeId__", "java.util.HashMap"))
+                .build();
+        channel.basicPublish(PAYMENT_EXCHANGE, fail ? "payment.failed" : "payment.completed",
+                properties, objectMapper.writeValueAsBytes(event));
+        (fail ? failed : completed).incrementAndGet();
+    }
+
+    @Override
+    public void close() throws IOException, TimeoutException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
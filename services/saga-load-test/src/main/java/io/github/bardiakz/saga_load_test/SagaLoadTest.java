@@ -0,0 +1,229 @@
+package io.github.bardiakz.saga_load_test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the order saga end to end (createOrder -> OrderCreated -> payment ->
+ * PaymentCompleted/PaymentFailed -> order finalized) and checks the stock afterwards.
+ * <p>
+ * Reports order submission rate, saga throughput and p50/p99 completion latency, and
+ * fails (exit code 1) if any product was oversold or failed orders did not give their
+ * stock back.
+ * <p>
+ * Every accepted order is watched by its own virtual thread, so its completion is seen
+ * within one poll interval and one status request however many orders are in flight.
+ * The poll gap reported next to the latency bounds how late a completion can have been seen.
+ */
+public class SagaLoadTest {
+
+    private static final Set<String> TERMINAL = Set.of("COMPLETED", "FAILED", "CANCELLED", "EXPIRED");
+
+    private final LoadTestConfig config;
+    private final MarketplaceClient client;
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final LatencyRecorder pollGaps = new LatencyRecorder();
+    private final ExecutorService watchers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore pollPermits;
+    private final Map<String, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+    private final Set<InFlightOrder> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<Long, AtomicLong> completedUnits = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> pendingUnits = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public SagaLoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.client = new MarketplaceClient(config.marketplaceUrl(), config.bearerToken());
+        // Status requests are capped like order submissions
+        this.pollPermits = new Semaphore(config.concurrency());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        boolean passed;
+        if (config.paymentStub()) {
+            try (PaymentStub stub = new PaymentStub(config.failureRate(), config.seed())) {
+                stub.start(config.rabbitHost(), config.rabbitPort(), config.rabbitUser(), config.rabbitPassword());
+                passed = new SagaLoadTest(config).run();
+                System.out.printf("Payment stub:      %d completed, %d failed%n", stub.completed(), stub.failed());
+            }
+        } else {
+            passed = new SagaLoadTest(config).run();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * @return true if every correctness check passed
+     */
+    public boolean run() throws Exception {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < config.products(); i++) {
+            productIds.add(client.createProduct("Saga load test " + config.seed() + "-" + i, config.stock()));
+        }
+        System.out.printf("Created %d products with stock %d; submitting %d orders of %d unit(s), concurrency %d%n",
+                productIds.size(), config.stock(), config.orders(), config.quantity(), config.concurrency());
+
+        long start = System.nanoTime();
+        submitAll(productIds);
+        long submitted = System.nanoTime();
+
+        watchers.shutdown();
+        if (!watchers.awaitTermination(config.timeoutSeconds(), TimeUnit.SECONDS)) {
+            watchers.shutdownNow();
+        }
+        watchers.close();
+        long finished = System.nanoTime();
+
+        // Unfinished orders still hold their reservation
+        for (InFlightOrder order : inFlight) {
+            pendingUnits.computeIfAbsent(order.productId(), id -> new AtomicLong()).addAndGet(config.quantity());
+            count("TIMED_OUT");
+        }
+
+        // Give write-behind stock settlement (hot products) time to reach products.stock
+        Thread.sleep(Duration.ofSeconds(config.settleSeconds()));
+
+        report(start, submitted, finished);
+        return verifyStock(productIds);
+    }
+
+    private void submitAll(List<Long> productIds) throws InterruptedException {
+        Semaphore permits = new Semaphore(config.concurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.orders(); i++) {
+                long productId = productIds.get(i % productIds.size());
+                String userId = "load-test-user-" + i;
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        submit(userId, productId);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void submit(String userId, long productId) {
+        long sentAt = System.nanoTime();
+        try {
+            long orderId = client.createOrder(userId, productId, config.quantity());
+            if (orderId < 0) {
+                rejected.incrementAndGet();
+            } else {
+                InFlightOrder order = new InFlightOrder(orderId, productId, sentAt);
+                inFlight.add(order);
+                watchers.submit(() -> awaitOutcome(order));
+            }
+        } catch (Exception e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private void awaitOutcome(InFlightOrder order) {
+        // The order was certainly open when it was created and when each unfinished answer was read
+        long openAt = order.sentAtNanos();
+        try {
+            while (true) {
+                Thread.sleep(config.pollIntervalMs());
+                String status;
+                long polledAt;
+                pollPermits.acquire();
+                try {
+                    polledAt = System.nanoTime();
+                    status = statusOf(order.orderId());
+                } finally {
+                    pollPermits.release();
+                }
+                long answeredAt = System.nanoTime();
+                if (status == null || !TERMINAL.contains(status)) {
+                    openAt = polledAt;
+                    continue;
+                }
+
+                latencies.record(answeredAt - order.sentAtNanos());
+                pollGaps.record(answeredAt - openAt);
+                count(status);
+                if (status.equals("COMPLETED")) {
+                    completedUnits.computeIfAbsent(order.productId(), id -> new AtomicLong())
+                            .addAndGet(config.quantity());
+                }
+                inFlight.remove(order);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String statusOf(long orderId) throws InterruptedException {
+        try {
+            return client.orderStatus(orderId);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void count(String status) {
+        statusCounts.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void report(long start, long submitted, long finished) {
+        double submitSeconds = (submitted - start) / 1e9;
+        double sagaSeconds = (finished - start) / 1e9;
+        System.out.println();
+        System.out.printf("Submitted:         %d orders in %.2fs (%.1f orders/sec), %d rejected, %d errors%n",
+                config.orders(), submitSeconds, config.orders() / submitSeconds, rejected.get(), errors.get());
+        System.out.printf("Saga throughput:   %d orders finalized in %.2fs (%.1f orders/sec)%n",
+                latencies.count(), sagaSeconds, latencies.count() / sagaSeconds);
+        System.out.printf("Saga latency:      p50 %d ms, p99 %d ms, max %d ms%n",
+                latencies.percentile(50).toMillis(), latencies.percentile(99).toMillis(), latencies.max().toMillis());
+        System.out.printf("Poll gap:          p99 %d ms, max %d ms (how late a completion can have been seen)%n",
+                pollGaps.percentile(99).toMillis(), pollGaps.max().toMillis());
+        System.out.printf("Final statuses:    %s%n", new TreeMap<>(statusCounts));
+    }
+
+    private boolean verifyStock(List<Long> productIds) throws Exception {
+        boolean passed = true;
+        for (long productId : productIds) {
+            long completed = units(completedUnits, productId);
+            long pending = units(pendingUnits, productId);
+            long expected = config.stock() - completed - pending;
+            int actual = client.productStock(productId);
+
+            if (completed > config.stock()) {
+                System.out.printf("FAIL product %d oversold: %d units completed, stock was %d%n",
+                        productId, completed, config.stock());
+                passed = false;
+            }
+            if (actual != expected) {
+                System.out.printf("FAIL product %d stock %d, expected %d (initial %d - completed %d - pending %d)%n",
+                        productId, actual, expected, config.stock(), completed, pending);
+                passed = false;
+            }
+        }
+        System.out.println(passed ? "PASS no oversell, failed orders compensated" : "Correctness checks failed");
+        return passed;
+    }
+
+    private static long units(Map<Long, AtomicLong> units, long productId) {
+        AtomicLong value = units.get(productId);
+        return value == null ? 0 : value.get();
+    }
+
+    private record InFlightOrder(long orderId, long productId, long sentAtNanos) {}
+}
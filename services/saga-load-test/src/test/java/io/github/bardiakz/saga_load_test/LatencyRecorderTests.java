@@ -0,0 +1,29 @@
+package io.github.bardiakz.saga_load_test;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyRecorderTests {
+
+	@Test
+	void percentilesUseNearestRank() {
+		LatencyRecorder recorder = new LatencyRecorder();
+		for (int millis = 100; millis >= 1; millis--) {
+			recorder.record(Duration.ofMillis(millis).toNanos());
+		}
+
+		assertEquals(100, recorder.count());
+		assertEquals(Duration.ofMillis(50), recorder.percentile(50));
+		assertEquals(Duration.ofMillis(99), recorder.percentile(99));
+		assertEquals(Duration.ofMillis(100), recorder.max());
+	}
+
+	@Test
+	void emptyRecorderReportsZero() {
+		assertEquals(Duration.ZERO, new LatencyRecorder().percentile(99));
+	}
+
+}